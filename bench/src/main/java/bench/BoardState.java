@@ -0,0 +1,40 @@
+package bench;
+
+import java.util.Random;
+
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import util.Board;
+
+/**
+ * A square board shared by the benchmarks. The board is size by size squares and
+ * the given fraction of them is blocked at random, always with the same seed, so
+ * every run measures the same board. The top left square, where the traversals
+ * start, is always active.
+ *
+ * @author Tyler Weir
+ */
+@State(Scope.Benchmark)
+public class BoardState {
+    @Param({"100", "512", "1024", "4096"})
+    public int size;
+
+    @Param({"0.0", "0.2", "0.4"})
+    public double density;
+
+    public Board board;
+
+    @Setup
+    public void setUp() {
+        this.board = new Board(this.size, this.size);
+        Random random = new Random(42);
+        for (int v = 1; v < this.board.size(); v++) {
+            if (random.nextDouble() < this.density) {
+                this.board.setActive(v, false);
+            }
+        }
+    }
+}
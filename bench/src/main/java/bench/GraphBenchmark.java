@@ -0,0 +1,89 @@
+package bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+
+import graph.Graph;
+import util.Board;
+
+/**
+ * Measures building the adjacency graph of a board, reading every vertex's
+ * neighbors back out of it with getNeighbors, and keeping it up to date when a
+ * square is toggled instead of rebuilding it.
+ *
+ * @author Tyler Weir
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx8g"})
+public class GraphBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Built {
+        public Graph<Integer> graph;
+
+        @Setup
+        public void setUp(BoardState state) {
+            this.graph = Graph.fromBoard(state.board);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Edited {
+        public Board board;
+        public Graph<Integer> graph;
+        public int[] squares;
+        public int next;
+
+        @Setup
+        public void setUp(BoardState state) {
+            this.board = state.board.copy();
+            this.graph = Graph.fromBoard(this.board);
+            Random random = new Random(7);
+            this.squares = new int[1 << 16];
+            for (int k = 0; k < this.squares.length; k++) {
+                this.squares[k] = random.nextInt(this.board.size());
+            }
+        }
+    }
+
+    @Benchmark
+    public Graph<Integer> buildGraph(BoardState state) {
+        return Graph.fromBoard(state.board);
+    }
+
+    @Benchmark
+    public void getNeighbors(BoardState state, Built built, Blackhole blackhole) {
+        for (int v = 0; v < state.board.size(); v++) {
+            if (state.board.isActive(v)) {
+                blackhole.consume(built.graph.getNeighbors(v));
+            }
+        }
+    }
+
+    @Benchmark
+    public int toggleSquare(Edited edited) {
+        int v = edited.squares[edited.next++ & (edited.squares.length - 1)];
+        edited.board.toggle(v);
+        Graph.updateSquare(edited.graph, edited.board, v);
+        // Toggle it back so the board is the same after every call
+        edited.board.toggle(v);
+        Graph.updateSquare(edited.graph, edited.board, v);
+        return edited.graph.version();
+    }
+}
@@ -0,0 +1,96 @@
+package bench;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import util.PriorityQueue;
+
+/**
+ * Measures util.PriorityQueue with one element per active square of the board.
+ * Each benchmark starts from an empty queue, so the cost of a single operation
+ * is the difference between two of them: push on its own, push then pop every
+ * element, and push, lower every priority with changePriority, then pop.
+ *
+ * @author Tyler Weir
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx8g"})
+public class PriorityQueueBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Priorities {
+        public Integer[] elements;
+        public int[] priorities;
+
+        @Setup
+        public void setUp(BoardState state) {
+            int n = state.board.numActive();
+            this.elements = new Integer[n];
+            this.priorities = new int[n];
+            Random random = new Random(42);
+            for (int v = 0, k = 0; v < state.board.size(); v++) {
+                if (state.board.isActive(v)) {
+                    this.elements[k] = v;
+                    this.priorities[k++] = random.nextInt(1 << 20);
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public PriorityQueue<Integer> push(Priorities p) {
+        return fill(p);
+    }
+
+    @Benchmark
+    public int pushPop(Priorities p) {
+        return drain(fill(p));
+    }
+
+    @Benchmark
+    public int pushChangePriorityPop(Priorities p) {
+        PriorityQueue<Integer> queue = fill(p);
+        for (int k = 0; k < p.elements.length; k++) {
+            queue.changePriority(p.elements[k], p.priorities[k] >>> 1);
+        }
+        return drain(queue);
+    }
+
+    /**
+     * Returns a new queue holding every element.
+     */
+    private static PriorityQueue<Integer> fill(Priorities p) {
+        PriorityQueue<Integer> queue = new PriorityQueue<Integer>();
+        for (int k = 0; k < p.elements.length; k++) {
+            queue.push(p.priorities[k], p.elements[k]);
+        }
+        return queue;
+    }
+
+    /**
+     * Pops every element and returns the sum of the elements, so the pops cannot
+     * be optimized away.
+     */
+    private static int drain(PriorityQueue<Integer> queue) {
+        int sum = 0;
+        while (!queue.isEmpty()) {
+            sum += queue.topElement();
+            queue.pop();
+        }
+        return sum;
+    }
+}
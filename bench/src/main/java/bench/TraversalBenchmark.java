@@ -0,0 +1,82 @@
+package bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import graph.Graph;
+import graph.GridGraph;
+import graph.IntGraphIfc;
+import search.*;
+
+/**
+ * Measures a full depth first, breadth first and Dijkstra traversal from the top
+ * left square, with a listener that does nothing. The traversals run either on
+ * the implicit grid the visualizer searches or on the adjacency graph built from
+ * the same board. The searches are built once and reused, as the visualizer
+ * does, so the numbers cover the traversal and not the setup.
+ *
+ * @author Tyler Weir
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx8g"})
+public class TraversalBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Searches {
+        @Param({"grid", "adjacency"})
+        public String graph;
+
+        public int start;
+        public GraphSearch dfs;
+        public GraphSearch bfs;
+        public GraphSearch dijkstra;
+
+        @Setup
+        public void setUp(BoardState state) {
+            IntGraphIfc g;
+            if (this.graph.equals("grid")) {
+                g = new GridGraph(state.board);
+                this.start = 0;
+            } else {
+                Graph<Integer> adjacency = Graph.fromBoard(state.board);
+                g = adjacency;
+                this.start = adjacency.id(0);
+            }
+            this.dfs = new DepthFirstSearch(g, VisitListener.NONE);
+            this.bfs = new BreadthFirstSearch(g, VisitListener.NONE);
+            this.dijkstra = new DijkstraSearch(g, VisitListener.NONE);
+        }
+    }
+
+    @Benchmark
+    public int dfs(Searches s) {
+        s.dfs.run(s.start);
+        return s.dfs.expandedCount();
+    }
+
+    @Benchmark
+    public int bfs(Searches s) {
+        s.bfs.run(s.start);
+        return s.bfs.expandedCount();
+    }
+
+    @Benchmark
+    public int dijkstra(Searches s) {
+        s.dijkstra.run(s.start);
+        return s.dijkstra.expandedCount();
+    }
+}
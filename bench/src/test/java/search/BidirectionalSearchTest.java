@@ -0,0 +1,79 @@
+package search;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+import org.junit.jupiter.api.Test;
+
+import graph.Graph;
+
+/**
+ * Checks that the bidirectional searches follow the graph as it is when they
+ * run, not as it was when they were built.
+ *
+ * @author Tyler Weir
+ */
+public class BidirectionalSearchTest {
+
+    /**
+     * Builds the chain 0, 1, 2, 3 with a fan from 0 to 10 through 19, so the
+     * backward side expands first and walks the chain.
+     *
+     * @param first The weight of the edge from 0 to 1.
+     */
+    private static Graph<Integer> chainWithFan(int first) {
+        Graph<Integer> graph = new Graph<Integer>();
+        for (int v = 0; v < 20; v++) {
+            graph.addVertex(v);
+        }
+        graph.addEdge(0, 1, first);
+        graph.addEdge(1, 2);
+        graph.addEdge(2, 3);
+        for (int v = 10; v < 20; v++) {
+            graph.addEdge(0, v);
+        }
+        return graph;
+    }
+
+    @Test
+    public void breadthFirstSeesRemovedEdge() {
+        Graph<Integer> graph = chainWithFan(1);
+        GraphSearch search = new BidirectionalBreadthFirstSearch(graph, v -> {});
+        assertArrayEquals(new int[] {0, 1, 2, 3}, search.findPath(0, 3));
+
+        graph.removeEdge(1, 2);
+        assertArrayEquals(new BreadthFirstSearch(graph, v -> {}).findPath(0, 3), search.findPath(0, 3));
+        assertArrayEquals(GraphSearch.NO_PATH, search.findPath(0, 3));
+    }
+
+    @Test
+    public void dijkstraSeesRemovedEdge() {
+        // A heavy first edge lets the backward side reach 1 before the forward side runs dry
+        Graph<Integer> graph = chainWithFan(3);
+        GraphSearch search = new BidirectionalDijkstraSearch(graph, v -> {});
+        assertArrayEquals(new int[] {0, 1, 2, 3}, search.findPath(0, 3));
+
+        graph.removeEdge(1, 2);
+        assertArrayEquals(GraphSearch.NO_PATH, search.findPath(0, 3));
+    }
+
+    @Test
+    public void breadthFirstSeesAddedEdge() {
+        Graph<Integer> graph = chainWithFan(1);
+        GraphSearch search = new BidirectionalBreadthFirstSearch(graph, v -> {});
+        assertArrayEquals(GraphSearch.NO_PATH, search.findPath(0, 5));
+
+        graph.addEdge(3, 5);
+        assertArrayEquals(new int[] {0, 1, 2, 3, 5}, search.findPath(0, 5));
+    }
+
+    @Test
+    public void dijkstraSeesNewWeight() {
+        Graph<Integer> graph = chainWithFan(1);
+        graph.addEdge(0, 3, 5);
+        GraphSearch search = new BidirectionalDijkstraSearch(graph, v -> {});
+        assertArrayEquals(new int[] {0, 1, 2, 3}, search.findPath(0, 3));
+
+        graph.removeEdge(1, 2);
+        assertArrayEquals(new int[] {0, 3}, search.findPath(0, 3));
+    }
+}
@@ -0,0 +1,58 @@
+package search;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+import org.junit.jupiter.api.Test;
+
+import graph.Graph;
+import graph.GridGraph;
+import graph.IntGraphIfc;
+
+/**
+ * Checks that the parallel breadth first search reads the reverse of the graph
+ * as it is when it runs, not as it was on its first bottom up step.
+ *
+ * @author Tyler Weir
+ */
+public class ParallelBreadthFirstSearchTest {
+
+    /**
+     * Builds a star from 0 to 1 through 50 with one more step from 1 to 51, so the
+     * second level is wide enough to be expanded bottom up.
+     */
+    private static Graph<Integer> starWithTail() {
+        Graph<Integer> graph = new Graph<Integer>();
+        for (int v = 0; v <= 51; v++) {
+            graph.addVertex(v);
+        }
+        for (int v = 1; v <= 50; v++) {
+            graph.addEdge(0, v);
+        }
+        graph.addEdge(1, 51);
+        return graph;
+    }
+
+    @Test
+    public void bottomUpSeesRemovedEdge() {
+        Graph<Integer> graph = starWithTail();
+        ParallelBreadthFirstSearch search = new ParallelBreadthFirstSearch(graph, v -> {});
+        search.run(0);
+        assertEquals(2, search.distance(51));
+
+        graph.removeEdge(1, 51);
+        search.run(0);
+        assertEquals(-1, search.distance(51));
+    }
+
+    @Test
+    public void gridReverseFollowsTheGrid() {
+        GridGraph grid = new GridGraph(3, 3);
+        IntGraphIfc reverse = grid.reverse();
+        int version = reverse.version();
+
+        grid.setActive(1, 1, false);
+        assertNotEquals(version, reverse.version());
+        assertEquals(grid.version(), reverse.version());
+    }
+}
@@ -0,0 +1,287 @@
+package graph;
+
+import java.util.Arrays;
+
+/**
+ * This class represents an immutable graph in compressed sparse row form. The
+ * neighbors of vertex v are stored in <code>targets[offsets[v]]</code> up to
+ * <code>targets[offsets[v + 1] - 1]</code>, so every edge costs a single int and
+ * a neighbor scan reads one contiguous run of memory. Edge weights, if any, sit
+ * in a parallel array indexed the same way. The graph also keeps the mapping
+ * between its dense int ids and the original vertices.
+ * Instances are created with {@link CsrGraphBuilder}.
+ * @author Tyler Weir
+ */
+public class CsrGraph<V> implements IntGraphIfc {
+
+	private final int n;
+	private final int[] offsets;
+	private final int[] targets;
+	private final int[] weights;
+	private final Labels<V> labels;
+	private final int maxDegree;
+	private final int maxWeight;
+	private CsrGraph<V> reverse;
+
+	/**
+	 * The mapping between dense ids and the original vertices.
+	 */
+	interface Labels<V> {
+		V vertex(int id);
+		int id(V v);
+	}
+
+	/**
+	 * Constructor for the CSR graph class.
+	 * @param offsets The start of each vertex's neighbors, followed by the number of edges
+	 * @param targets The neighbors of all vertices, stored back to back
+	 * @param weights The weight of each edge in targets, or null if every edge has weight 1
+	 * @param labels The mapping between ids and the original vertices
+	 */
+	CsrGraph(int[] offsets, int[] targets, int[] weights, Labels<V> labels) {
+		this.n = offsets.length - 1;
+		this.offsets = offsets;
+		this.targets = targets;
+		this.weights = weights;
+		this.labels = labels;
+
+		int max = 0;
+		for (int v = 0; v < this.n; v++) {
+			max = Math.max(max, offsets[v + 1] - offsets[v]);
+		}
+		this.maxDegree = max;
+
+		max = weights == null ? 1 : 0;
+		for (int e = 0; weights != null && e < weights.length; e++) {
+			max = Math.max(max, weights[e]);
+		}
+		this.maxWeight = max;
+	}
+
+	/**
+	 * Returns the number of vertex ids. Every id of a CSR graph is a vertex.
+	 * @return The number of vertices in the graph
+	 */
+	public int numIds() {
+		return this.n;
+	}
+
+	/**
+	 * Returns the number of vertices in the graph
+	 * @return The number of vertices in the graph
+	 */
+	public int numVertices() {
+		return this.n;
+	}
+
+	/**
+	 * Returns the number of edges in the graph
+	 * @return The number of edges in the graph
+	 */
+	public int numEdges() {
+		return this.targets.length;
+	}
+
+	/**
+	 * Determines whether the given id names a vertex of the graph.
+	 * @param v The id to be tested
+	 * @return True if v is a vertex of the graph, false otherwise
+	 */
+	public boolean isVertex(int v) {
+		return v >= 0 && v < this.n;
+	}
+
+	/**
+	 * Returns the largest out degree of any vertex in the graph.
+	 * @return The maximum out degree of the graph
+	 */
+	public int maxDegree() {
+		return this.maxDegree;
+	}
+
+	/**
+	 * Writes the neighbors of v into the given buffer.
+	 *
+	 * @param v A vertex in the graph
+	 * @param out A buffer of at least <code>maxDegree()</code> ints
+	 * @return The number of neighbors written to the buffer
+	 */
+	public int neighbors(int v, int[] out) {
+		int start = this.offsets[v];
+		int count = this.offsets[v + 1] - start;
+		System.arraycopy(this.targets, start, out, 0, count);
+		return count;
+	}
+
+	/**
+	 * Writes the neighbors of v into one buffer and the weights of the edges that
+	 * lead to them into another.
+	 *
+	 * @param v A vertex in the graph
+	 * @param out A buffer of at least <code>maxDegree()</code> ints
+	 * @param weights A buffer of at least <code>maxDegree()</code> ints
+	 * @return The number of neighbors written to the buffers
+	 */
+	public int neighbors(int v, int[] out, int[] weights) {
+		int start = this.offsets[v];
+		int count = this.offsets[v + 1] - start;
+		System.arraycopy(this.targets, start, out, 0, count);
+		if (this.weights == null) {
+			Arrays.fill(weights, 0, count, 1);
+		} else {
+			System.arraycopy(this.weights, start, weights, 0, count);
+		}
+		return count;
+	}
+
+	/**
+	 * Performs the given action on every edge leaving v, reading v's slice of
+	 * the edge arrays in place.
+	 *
+	 * @param v A vertex in the graph
+	 * @param action The action to perform on each edge
+	 * @return True if every edge was scanned, false if the action stopped early
+	 */
+	public boolean scanEdges(int v, IntEdgeConsumer action) {
+		int end = this.offsets[v + 1];
+		for (int e = this.offsets[v]; e < end; e++) {
+			if (!action.accept(this.targets[e], this.weights == null ? 1 : this.weights[e])) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Returns the largest weight of any edge in the graph.
+	 * @return The largest edge weight of the graph
+	 */
+	public int maxEdgeWeight() {
+		return this.maxWeight;
+	}
+
+	/**
+	 * Returns the degree of the vertex.
+	 * @param v A vertex in the graph
+	 * @return The out degree of the vertex
+	 */
+	public int degree(int v) {
+		return this.offsets[v + 1] - this.offsets[v];
+	}
+
+	/**
+	 * Returns the position of the first neighbor of v in the target array. Together
+	 * with <code>edgeEnd()</code> and <code>target()</code> this allows a neighbor scan
+	 * without copying.
+	 * @param v A vertex in the graph
+	 * @return The index of the first edge of v
+	 */
+	public int edgeStart(int v) {
+		return this.offsets[v];
+	}
+
+	/**
+	 * Returns the position just past the last neighbor of v in the target array.
+	 * @param v A vertex in the graph
+	 * @return One more than the index of the last edge of v
+	 */
+	public int edgeEnd(int v) {
+		return this.offsets[v + 1];
+	}
+
+	/**
+	 * Returns the vertex an edge leads to.
+	 * @param e The index of an edge
+	 * @return The id of the edge's target
+	 */
+	public int target(int e) {
+		return this.targets[e];
+	}
+
+	/**
+	 * Returns the transpose of the graph, built the first time it is asked for.
+	 * The transpose shares the ids and vertices of this graph, and its reverse is
+	 * this graph again. It is safe to ask for from several threads at once.
+	 * @return The graph with every edge turned around
+	 */
+	public synchronized CsrGraph<V> reverse() {
+		if (this.reverse == null) {
+			// Count the edges into each vertex, then place them
+			int[] offsets = new int[this.n + 1];
+			for (int e = 0; e < this.targets.length; e++) {
+				offsets[this.targets[e] + 1]++;
+			}
+			for (int v = 0; v < this.n; v++) {
+				offsets[v + 1] += offsets[v];
+			}
+			int[] next = Arrays.copyOf(offsets, this.n);
+			int[] sources = new int[this.targets.length];
+			int[] weights = this.weights == null ? null : new int[this.weights.length];
+			for (int u = 0; u < this.n; u++) {
+				for (int e = this.offsets[u]; e < this.offsets[u + 1]; e++) {
+					int f = next[this.targets[e]]++;
+					sources[f] = u;
+					if (weights != null) {
+						weights[f] = this.weights[e];
+					}
+				}
+			}
+			this.reverse = new CsrGraph<V>(offsets, sources, weights, this.labels);
+			this.reverse.reverse = this;
+		}
+		return this.reverse;
+	}
+
+	/**
+	 * Returns the weight of an edge.
+	 * @param e The index of an edge
+	 * @return The weight of the edge
+	 */
+	public int weight(int e) {
+		return this.weights == null ? 1 : this.weights[e];
+	}
+
+	/**
+	 * Returns the original vertex with the given id.
+	 * @param id A vertex id
+	 * @return The vertex that was assigned the id
+	 */
+	public V vertex(int id) {
+		return this.labels.vertex(id);
+	}
+
+	/**
+	 * Returns the id of an original vertex.
+	 * @param v A vertex of the original graph
+	 * @return The id of the vertex, or -1 if it does not occur in the graph
+	 */
+	public int id(V v) {
+		return this.labels.id(v);
+	}
+
+	/**
+	 * Returns a string representation of the graph. The string representation shows all
+	 * vertices and edges in the graph.
+	 * @return A string representation of the graph
+	 */
+	public String toString() {
+		StringBuilder sb = new StringBuilder("{");
+		for (int v = 0; v < this.n; v++) {
+			if (v > 0) {
+				sb.append(", ");
+			}
+			sb.append(vertex(v)).append("=[");
+			for (int e = this.offsets[v]; e < this.offsets[v + 1]; e++) {
+				if (e > this.offsets[v]) {
+					sb.append(", ");
+				}
+				sb.append(vertex(this.targets[e]));
+				if (weight(e) != 1) {
+					sb.append(':').append(weight(e));
+				}
+			}
+			sb.append(']');
+		}
+		return sb.append('}').toString();
+	}
+}
@@ -0,0 +1,149 @@
+package graph;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import util.Board;
+
+/**
+ * This class converts other graph representations into a {@link CsrGraph}. Ids
+ * are handed out densely from zero in the order the vertices are met.
+ * @author Tyler Weir
+ */
+public class CsrGraphBuilder {
+
+	private CsrGraphBuilder() {
+	}
+
+	/**
+	 * Converts a graph into compressed sparse row form. The edges of the new graph
+	 * and their weights are exactly those of the given graph.
+	 * @param graph The graph to convert
+	 * @return An immutable copy of the graph
+	 */
+	public static <V> CsrGraph<V> fromGraph(GraphIfc<V> graph) {
+		int n = graph.numVertices();
+		Object[] vertices = new Object[n];
+		Map<V, Integer> ids = new HashMap<V, Integer>(2 * n);
+
+		// Hand out ids and count the edges of each vertex
+		int[] offsets = new int[n + 1];
+		int id = 0;
+		for (V v : graph.getVertices()) {
+			vertices[id] = v;
+			ids.put(v, id);
+			offsets[id + 1] = offsets[id] + graph.degree(v);
+			id++;
+		}
+
+		// Fill in the neighbors of each vertex and the weights of the edges
+		int[] targets = new int[offsets[n]];
+		int[] weights = new int[offsets[n]];
+		int[] e = new int[1];
+		for (int u = 0; u < n; u++) {
+			@SuppressWarnings("unchecked")
+			V v = (V)vertices[u];
+			e[0] = offsets[u];
+			graph.forEachEdge(v, (w, weight) -> {
+				targets[e[0]] = ids.get(w);
+				weights[e[0]++] = weight;
+			});
+		}
+
+		return new CsrGraph<V>(offsets, targets, unlessUnit(weights), new CsrGraph.Labels<V>() {
+			@SuppressWarnings("unchecked")
+			public V vertex(int id) {
+				return (V)vertices[id];
+			}
+
+			public int id(V v) {
+				Integer id = ids.get(v);
+				return id == null ? -1 : id;
+			}
+		});
+	}
+
+	/**
+	 * Converts a board of squares into compressed sparse row form. Each active square
+	 * becomes a vertex connected to the active squares above, below, left and right
+	 * of it. An edge weighs the terrain cost of the square it enters. The original vertex
+	 * of each id is the square index i * width + j. The board is read straight from its
+	 * bitsets and the mapping is kept in two int arrays, so no objects are created per
+	 * square.
+	 * @param board The board of squares
+	 * @return An immutable graph of the active squares
+	 */
+	public static CsrGraph<Integer> fromBoard(Board board) {
+		int height = board.height();
+		int width = board.width();
+
+		// Hand out ids to the active squares in row major order
+		int[] cellIds = new int[board.size()];
+		int n = 0;
+		for (int v = 0; v < cellIds.length; v++) {
+			cellIds[v] = board.isActive(v) ? n++ : -1;
+		}
+
+		int[] cells = new int[n];
+		int[] offsets = new int[n + 1];
+		int[] targets = new int[4 * n];
+		int[] weights = new int[4 * n];
+		int e = 0;
+		for (int i = 0; i < height; i++) {
+			for (int j = 0; j < width; j++) {
+				int v = i * width + j;
+				int u = cellIds[v];
+				if (u < 0) {
+					continue;
+				}
+				cells[u] = v;
+
+				// Neighbors above, behind, ahead and below
+				if (i > 0 && cellIds[v - width] >= 0) {
+					weights[e] = board.cost(v - width);
+					targets[e++] = cellIds[v - width];
+				}
+				if (j > 0 && cellIds[v - 1] >= 0) {
+					weights[e] = board.cost(v - 1);
+					targets[e++] = cellIds[v - 1];
+				}
+				if (j < width - 1 && cellIds[v + 1] >= 0) {
+					weights[e] = board.cost(v + 1);
+					targets[e++] = cellIds[v + 1];
+				}
+				if (i < height - 1 && cellIds[v + width] >= 0) {
+					weights[e] = board.cost(v + width);
+					targets[e++] = cellIds[v + width];
+				}
+				offsets[u + 1] = e;
+			}
+		}
+
+		return new CsrGraph<Integer>(offsets, Arrays.copyOf(targets, e), unlessUnit(Arrays.copyOf(weights, e)), new CsrGraph.Labels<Integer>() {
+			public Integer vertex(int id) {
+				return cells[id];
+			}
+
+			public int id(Integer cell) {
+				if (cell == null || cell < 0 || cell >= cellIds.length) {
+					return -1;
+				}
+				return cellIds[cell];
+			}
+		});
+	}
+
+	/**
+	 * Returns the weights, or null if every weight is 1 so the graph need not
+	 * store them.
+	 */
+	private static int[] unlessUnit(int[] weights) {
+		for (int w : weights) {
+			if (w != 1) {
+				return weights;
+			}
+		}
+		return null;
+	}
+}
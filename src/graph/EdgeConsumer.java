@@ -0,0 +1,18 @@
+package graph;
+
+/**
+ * An action performed on each edge leaving a vertex, given the vertex the edge
+ * leads to and the weight of the edge. Passing the weight as an int keeps the
+ * iteration free of wrapper objects.
+ * @author Tyler Weir
+ */
+@FunctionalInterface
+public interface EdgeConsumer<V> {
+
+	/**
+	 * Performs the action on one edge.
+	 * @param target The vertex the edge leads to
+	 * @param weight The weight of the edge
+	 */
+	public void accept(V target, int weight);
+}
@@ -3,99 +3,380 @@ package graph;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.HashSet;
 import java.util.HashMap;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.function.Consumer;
+
+import util.Board;
 
 /**
  * This class represents a graph data structure.
- * @author Tyler Weir 
- * 
+ * <br><br>
+ * Each vertex is given a dense int id when it is added. The edges leaving a
+ * vertex are kept in two parallel int arrays, one holding the ids of the
+ * neighbors and one the weights of the edges, so no object is created per edge.
+ * Looking up a single edge scans the edges of its first vertex.  A vertex with
+ * more than a few edges also keeps an open addressing table from neighbor to
+ * position, so adding an edge to a hub, which first looks for a duplicate, stays
+ * constant time rather than growing with the hub's degree.
+ * <br><br>
+ * The ids also make the graph an {@link IntGraphIfc}, so the searches can run
+ * on it directly and read each vertex's neighbors straight from its arrays.
+ * A search sizes its buffers by <code>maxDegree()</code> when it is built, so it
+ * should be built after the graph.
+ * <br><br>
+ * Removing an edge moves the last edge of its vertex into its place. Removing
+ * a vertex takes O(degree) time when its edges go both ways, as they do in a
+ * graph built from a board. Its id goes on a free list and is handed to the
+ * next vertex added. A version counter changes with every change to the
+ * vertices or edges, so caches and searches can tell when they are stale.
+ * @author Tyler Weir
+ *
  */
-public class Graph<V> implements GraphIfc<V> {
+public class Graph<V> implements GraphIfc<V>, IntGraphIfc {
+
+	private static final int[] NO_EDGES = new int[0];
+	// Vertices with at least this many edges find their edges through a hash table
+	private static final int INDEX_DEGREE = 16;
 
-	private Map<V, HashSet<V>> vertices; 
+	private Map<V, Integer> ids;
+	private ArrayList<V> vertices;
+	private int[][] targets;
+	private int[][] weights;
+	private int[] degrees;
+	// For each vertex, null or a table of (neighbor id + 1, position) pairs
+	private int[][] index;
+	// The number of edges into each vertex
+	private int[] inDegrees;
+	// The ids of removed vertices, waiting to be handed out again
+	private int[] freeIds;
+	private int numFree;
+	private int numEdges;
+	private int maxDegree;
+	private int maxWeight;
+	private int version;
 
 	/**
 	 * Constructor for the graph class.
 	 */
 	public Graph() {
-		this.vertices = new HashMap<V, HashSet<V>>();
+		this.ids = new HashMap<V, Integer>();
+		this.vertices = new ArrayList<V>();
+		this.targets = new int[16][];
+		this.weights = new int[16][];
+		this.degrees = new int[16];
+		this.index = new int[16][];
+		this.inDegrees = new int[16];
+		this.freeIds = new int[16];
+		this.numEdges = 0;
+	}
+
+	/**
+	 * Builds a graph from the state of the squares of a board. Inactive squares
+	 * have no vertex. Each vertex is the index of its square, i * width + j, and is
+	 * joined to the active squares above, below, left and right of it. Each edge
+	 * weighs the terrain cost of the square it enters.
+	 * @param board The board of squares
+	 * @return A graph of square indices
+	 */
+	public static Graph<Integer> fromBoard(Board board) {
+		Graph<Integer> graph = new Graph<Integer>();
+		int width = board.width();
+
+		for (int i = 0; i < board.height(); i++) {
+			for (int j = 0; j < width; j++) {
+				int v = board.index(i, j);
+				if (!board.isActive(v)) {
+					continue;
+				}
+				graph.addVertex(v);
+
+				if (i > 0 && board.isActive(v - width)) {
+					// Add edges to and from the square above
+					graph.addEdge(v, v - width, board.cost(v - width));
+					graph.addEdge(v - width, v, board.cost(v));
+				}
+				if (j > 0 && board.isActive(v - 1)) {
+					// Add edges to and from the square behind
+					graph.addEdge(v, v - 1, board.cost(v - 1));
+					graph.addEdge(v - 1, v, board.cost(v));
+				}
+			}
+		}
+		return graph;
+	}
+
+	/**
+	 * Brings the vertex of a square and its edges in line with a board after the
+	 * square was toggled or its terrain cost changed, in the same form as
+	 * <code>fromBoard()</code>. Only the square and the four beside it are read,
+	 * so a graph kept this way never needs to be rebuilt.
+	 * @param graph A graph built from the board with <code>fromBoard()</code>
+	 * @param board The board of squares
+	 * @param v The index of the square that changed
+	 */
+	public static void updateSquare(Graph<Integer> graph, Board board, int v) {
+		if (!board.isActive(v)) {
+			graph.removeVertex(v);
+			return;
+		}
+		graph.addVertex(v);
+
+		int width = board.width();
+		int i = v / width;
+		int j = v % width;
+		int[] beside = {
+			i > 0 ? v - width : -1,
+			i < board.height() - 1 ? v + width : -1,
+			j > 0 ? v - 1 : -1,
+			j < width - 1 ? v + 1 : -1
+		};
+		for (int u : beside) {
+			if (u >= 0 && board.isActive(u)) {
+				// Adding an edge that exists only updates its weight
+				graph.addEdge(v, u, board.cost(u));
+				graph.addEdge(u, v, board.cost(v));
+			}
+		}
 	}
-			
+
 	/**
 	 * Returns the number of vertices in the graph
 	 * @return The number of vertices in the graph
 	 */
 	public int numVertices() {
-		return this.vertices.size();
+		return this.ids.size();
 	}
-		
+
 	/**
 	 * Returns the number of edges in the graph
 	 * @return The number of edges in the graph
 	 */
 	public int numEdges() {
-		// get the vertices
-		ArrayList<V> verts = new ArrayList<V>(this.getVertices());
-
-		// Iterate over each vertex and sum neighbors
-		int numEdges = 0;
-		for (int i = 0; i < verts.size(); i++) {
-			numEdges += this.vertices.get(verts.get(i)).size();
-		}
-		return numEdges;
-	}	
-	
+		return this.numEdges;
+	}
 
-	
 	/**
 	 * Removes all vertices from the graph
 	 */
 	public void clear() {
+		this.ids.clear();
 		this.vertices.clear();
-	}	
-		
-	/** 
-	 * Adds a vertex to the graph. This method has no effect if the vertex already exists in the graph. 
+		Arrays.fill(this.targets, null);
+		Arrays.fill(this.weights, null);
+		Arrays.fill(this.degrees, 0);
+		Arrays.fill(this.index, null);
+		Arrays.fill(this.inDegrees, 0);
+		this.numFree = 0;
+		this.numEdges = 0;
+		this.maxDegree = 0;
+		this.maxWeight = 0;
+		this.version++;
+	}
+
+	/**
+	 * Adds a vertex to the graph. This method has no effect if the vertex already exists in the graph.
+	 * The vertex gets the id of the last vertex removed, if any, or else the next unused id.
 	 * @param v The vertex to be added
 	 */
 	public void addVertex(V v) {
-		this.vertices.put(v, new HashSet<V>());
-	}	
-	
+		if (this.ids.containsKey(v)) {
+			return;
+		}
+
+		int id;
+		if (this.numFree > 0) {
+			id = this.freeIds[--this.numFree];
+			this.vertices.set(id, v);
+		} else {
+			id = this.vertices.size();
+			if (id == this.degrees.length) {
+				int capacity = 2 * id;
+				this.targets = Arrays.copyOf(this.targets, capacity);
+				this.weights = Arrays.copyOf(this.weights, capacity);
+				this.degrees = Arrays.copyOf(this.degrees, capacity);
+				this.index = Arrays.copyOf(this.index, capacity);
+				this.inDegrees = Arrays.copyOf(this.inDegrees, capacity);
+			}
+			this.vertices.add(v);
+		}
+		this.ids.put(v, id);
+		this.targets[id] = NO_EDGES;
+		this.weights[id] = NO_EDGES;
+		this.version++;
+	}
+
 	/**
-	 * Adds an edge between vertices u and v in the graph. 
+	 * Removes a vertex and every edge into or out of it. This method has no effect if the
+	 * vertex does not occur in the graph. The edges back from the vertex's neighbors are
+	 * found in their own edge arrays; only edges into the vertex from vertices it has no
+	 * edge to need a scan of the whole graph.
+	 * @param v The vertex to be removed
+	 */
+	public void removeVertex(V v) {
+		Integer boxed = this.ids.remove(v);
+		if (boxed == null) {
+			return;
+		}
+		int id = boxed;
+
+		int[] targets = this.targets[id];
+		for (int e = 0; e < this.degrees[id]; e++) {
+			int u = targets[e];
+			this.inDegrees[u]--;
+			int back = u == id ? -1 : find(u, id);
+			if (back >= 0) {
+				removeEdgeAt(u, back);
+			}
+		}
+		this.numEdges -= this.degrees[id];
+		this.degrees[id] = 0;
+		this.index[id] = null;
+
+		// Edges that only go one way into v
+		for (int u = 0; this.inDegrees[id] > 0 && u < this.vertices.size(); u++) {
+			int e = find(u, id);
+			if (e >= 0) {
+				removeEdgeAt(u, e);
+			}
+		}
+
+		this.targets[id] = NO_EDGES;
+		this.weights[id] = NO_EDGES;
+		this.vertices.set(id, null);
+		if (this.numFree == this.freeIds.length) {
+			this.freeIds = Arrays.copyOf(this.freeIds, 2 * this.numFree);
+		}
+		this.freeIds[this.numFree++] = id;
+		this.version++;
+	}
+
+	/**
+	 * Adds an edge between vertices u and v in the graph with weight 1.
 	 *
 	 * @param u A vertex in the graph
 	 * @param v A vertex in the graph
 	 * @throws IllegalArgumentException if either vertex does not occur in the graph.
 	 */
 	public void addEdge(V u, V v) {
+		addEdge(u, v, 1);
+	}
+
+	/**
+	 * Adds an edge between vertices u and v in the graph with the given weight. If
+	 * the edge already exists its weight is replaced.
+	 *
+	 * @param u A vertex in the graph
+	 * @param v A vertex in the graph
+	 * @param weight The non-negative weight of the edge
+	 * @throws IllegalArgumentException if either vertex does not occur in the graph.
+	 */
+	public void addEdge(V u, V v, int weight) {
 		// Check vertexs for existance
 		boolean containsVertices = this.containsVertex(u) & this.containsVertex(v);
 		if (!containsVertices) {
 			throw new IllegalStateException("One or both vertices do not occur in the graph.");
 		}
+		if (weight < 0) {
+			throw new IllegalStateException("The weight of an edge must be non-negative.");
+		}
 
-		// Add the edge to u's edge list.
-		HashSet<V> edges = this.vertices.get(u);
-		edges.add(v);
-	}	
+		int from = this.ids.get(u);
+		int to = this.ids.get(v);
+		int e = find(from, to);
+		this.maxWeight = Math.max(this.maxWeight, weight);
+		if (e >= 0) {
+			if (this.weights[from][e] != weight) {
+				this.weights[from][e] = weight;
+				this.version++;
+			}
+			return;
+		}
+
+		// Add the edge to u's edge arrays.
+		int degree = this.degrees[from];
+		if (degree == this.targets[from].length) {
+			int capacity = Math.max(4, 2 * degree);
+			this.targets[from] = Arrays.copyOf(this.targets[from], capacity);
+			this.weights[from] = Arrays.copyOf(this.weights[from], capacity);
+		}
+		this.targets[from][degree] = to;
+		this.weights[from][degree] = weight;
+		this.degrees[from]++;
+		if (this.index[from] != null) {
+			indexPut(from, to, degree);
+		} else if (this.degrees[from] >= INDEX_DEGREE) {
+			buildIndex(from);
+		}
+		this.inDegrees[to]++;
+		this.numEdges++;
+		this.maxDegree = Math.max(this.maxDegree, this.degrees[from]);
+		this.version++;
+	}
+
+	/**
+	 * Removes the edge from u to v, moving the last edge of u into its place. This
+	 * method has no effect if there is no such edge.
+	 *
+	 * @param u A vertex in the graph
+	 * @param v A vertex in the graph
+	 * @return True if the edge was removed, false if it did not exist
+	 * @throws IllegalArgumentException if either vertex does not occur in the graph.
+	 */
+	public boolean removeEdge(V u, V v) {
+		boolean containsVertices = this.containsVertex(u) & this.containsVertex(v);
+		if (!containsVertices) {
+			throw new IllegalStateException("One or both vertices do not occur in the graph.");
+		}
+
+		int from = this.ids.get(u);
+		int e = find(from, this.ids.get(v));
+		if (e < 0) {
+			return false;
+		}
+		removeEdgeAt(from, e);
+		this.version++;
+		return true;
+	}
+
+	/**
+	 * Returns the weight of the edge from u to v. Edges added without a weight have
+	 * weight 1.
+	 *
+	 * @param u A vertex in the graph
+	 * @param v A vertex in the graph
+	 * @return The weight of the edge
+	 * @throws IllegalArgumentException if the edge does not occur in the graph.
+	 */
+	public int getWeight(V u, V v) {
+		boolean containsVertices = this.containsVertex(u) & this.containsVertex(v);
+		if (!containsVertices) {
+			throw new IllegalStateException("One or both vertices do not occur in the graph.");
+		}
+
+		int from = this.ids.get(u);
+		int e = find(from, this.ids.get(v));
+		if (e < 0) {
+			throw new IllegalStateException("The edge does not occur in the graph.");
+		}
+		return this.weights[from][e];
+	}
 
 	/**
 	 * Returns the set of all vertices in the graph.
 	 * @return A set containing all vertices in the graph
 	 */
 	public Set<V> getVertices() {
-		return this.vertices.keySet();
+		return Collections.unmodifiableSet(this.ids.keySet());
 	}
-	
+
 	/**
 	 * Returns the neighbors of v in the graph. A neighbor is a vertex that is connected to
-	 * v by an edge. If the graph is directed, this returns the vertices u for which an 
+	 * v by an edge. If the graph is directed, this returns the vertices u for which an
 	 * edge (v, u) exists.
-	 *  
+	 *
 	 * @param v An existing node in the graph
 	 * @return All neighbors of v in the graph.
 	 * @throws IllegalArgumentException if the vertex does not occur in the graph
@@ -105,29 +386,78 @@ public class Graph<V> implements GraphIfc<V> {
 			throw new IllegalStateException("The vertex does not occur in the graph.");
 		}
 
-		return new ArrayList<V>(this.vertices.get(v));
-	}	
+		int from = this.ids.get(v);
+		int degree = this.degrees[from];
+		int[] targets = this.targets[from];
+		List<V> neighbors = new ArrayList<V>(degree);
+		for (int e = 0; e < degree; e++) {
+			neighbors.add(this.vertices.get(targets[e]));
+		}
+		return neighbors;
+	}
+
+	/**
+	 * Performs the given action on every edge leaving v, passing the neighbor the
+	 * edge leads to and the weight of the edge. Nothing is copied.
+	 *
+	 * @param v An existing node in the graph
+	 * @param action The action to perform on each edge
+	 * @throws IllegalArgumentException if the vertex does not occur in the graph
+	 */
+	public void forEachEdge(V v, EdgeConsumer<V> action) {
+		if(!this.containsVertex(v)) {
+			throw new IllegalStateException("The vertex does not occur in the graph.");
+		}
+
+		int from = this.ids.get(v);
+		int degree = this.degrees[from];
+		int[] targets = this.targets[from];
+		int[] weights = this.weights[from];
+		for (int e = 0; e < degree; e++) {
+			action.accept(this.vertices.get(targets[e]), weights[e]);
+		}
+	}
+
+	/**
+	 * Performs the given action on every neighbor of v, reading them straight from
+	 * v's edge array. Nothing is copied.
+	 *
+	 * @param v An existing node in the graph
+	 * @param action The action to perform on each neighbor
+	 * @throws IllegalArgumentException if the vertex does not occur in the graph
+	 */
+	public void forEachNeighbor(V v, Consumer<? super V> action) {
+		if(!this.containsVertex(v)) {
+			throw new IllegalStateException("The vertex does not occur in the graph.");
+		}
+
+		int from = this.ids.get(v);
+		int degree = this.degrees[from];
+		int[] targets = this.targets[from];
+		for (int e = 0; e < degree; e++) {
+			action.accept(this.vertices.get(targets[e]));
+		}
+	}
 
 	/**
 	 * Determines whether the given vertex is already contained in the graph. The comparison
-	 * is based on the <code>equals()</code> method in the class V. 
-	 * 
+	 * is based on the <code>equals()</code> method in the class V.
+	 *
 	 * @param v The vertex to be tested.
 	 * @return True if v exists in the graph, false otherwise.
 	 */
 	public boolean containsVertex(V v) {
-		return this.vertices.containsKey(v);
+		return this.ids.containsKey(v);
 	}
-	
+
 	/**
 	 * Determines whether an edge exists between two vertices. In a directed graph,
-	 * this returns true only if the edge starts at v and ends at u. 
+	 * this returns true only if the edge starts at v and ends at u.
 	 * @param v A node in the graph
 	 * @param u A node in the graph
 	 * @return True if an edge exists between the two vertices
 	 * @throws IllegalArgumentException if either vertex does not occur in the graph
 	 */
-	@SuppressWarnings("rawtypes")
 	public boolean edgeExists(V v, V u) {
 		// Check vertexs for existance
 		boolean containsVertices = this.containsVertex(u) & this.containsVertex(v);
@@ -135,13 +465,12 @@ public class Graph<V> implements GraphIfc<V> {
 			throw new IllegalStateException("One or both vertices do not occur in the graph.");
 		}
 
-		HashSet edges = this.vertices.get(v);
-		return edges.contains(u);
+		return find(this.ids.get(v), this.ids.get(u)) >= 0;
 	}
 
 	/**
 	 * Returns the degree of the vertex. In a directed graph, this returns the outdegree of the
-	 * vertex. 
+	 * vertex.
 	 * @param v A vertex in the graph
 	 * @return The degree of the vertex
 	 * @throws IllegalArgumentException if the vertex does not occur in the graph
@@ -151,16 +480,297 @@ public class Graph<V> implements GraphIfc<V> {
 			throw new IllegalStateException("The vertex does not occur in the graph.");
 		}
 
-		return this.vertices.get(v).size();
+		return this.degrees[this.ids.get(v)];
+	}
+
+	/**
+	 * Returns the id of a vertex. Ids are handed out densely from zero in the order
+	 * the vertices were added.
+	 * @param v A vertex of the graph
+	 * @return The id of the vertex, or -1 if it does not occur in the graph
+	 */
+	public int id(V v) {
+		Integer id = this.ids.get(v);
+		return id == null ? -1 : id;
 	}
-	
+
+	/**
+	 * Returns the vertex with the given id.
+	 * @param id A vertex id
+	 * @return The vertex that was given the id
+	 */
+	public V vertex(int id) {
+		return this.vertices.get(id);
+	}
+
+	/**
+	 * Returns the number of vertex ids. The ids of removed vertices stay below it
+	 * until they are handed out again.
+	 * @return The size of the id space of the graph
+	 */
+	public int numIds() {
+		return this.vertices.size();
+	}
+
+	/**
+	 * Determines whether the given id names a vertex of the graph.
+	 * @param v The id to be tested
+	 * @return True if v is a vertex of the graph, false otherwise
+	 */
+	public boolean isVertex(int v) {
+		return v >= 0 && v < this.vertices.size() && this.vertices.get(v) != null;
+	}
+
+	/**
+	 * Returns a counter that changes whenever a vertex or an edge is added or
+	 * removed, or an edge's weight changes.
+	 * @return The version of the graph
+	 */
+	public int version() {
+		return this.version;
+	}
+
+	/**
+	 * Returns the largest out degree any vertex of the graph has had. Removing
+	 * edges does not lower it, so buffers sized by it stay large enough.
+	 * @return The maximum out degree of the graph
+	 */
+	public int maxDegree() {
+		return this.maxDegree;
+	}
+
+	/**
+	 * Writes the ids of the neighbors of the vertex with id v into the buffer.
+	 *
+	 * @param v A vertex id
+	 * @param out A buffer of at least <code>maxDegree()</code> ints
+	 * @return The number of neighbors written to the buffer
+	 */
+	public int neighbors(int v, int[] out) {
+		int degree = this.degrees[v];
+		System.arraycopy(this.targets[v], 0, out, 0, degree);
+		return degree;
+	}
+
+	/**
+	 * Writes the ids of the neighbors of the vertex with id v into one buffer and
+	 * the weights of the edges that lead to them into another.
+	 *
+	 * @param v A vertex id
+	 * @param out A buffer of at least <code>maxDegree()</code> ints
+	 * @param weights A buffer of at least <code>maxDegree()</code> ints
+	 * @return The number of neighbors written to the buffers
+	 */
+	public int neighbors(int v, int[] out, int[] weights) {
+		int degree = this.degrees[v];
+		System.arraycopy(this.targets[v], 0, out, 0, degree);
+		System.arraycopy(this.weights[v], 0, weights, 0, degree);
+		return degree;
+	}
+
+	/**
+	 * Performs the given action on every edge leaving the vertex with id v,
+	 * reading v's edge arrays in place.
+	 *
+	 * @param v A vertex id
+	 * @param action The action to perform on each edge
+	 * @return True if every edge was scanned, false if the action stopped early
+	 */
+	public boolean scanEdges(int v, IntEdgeConsumer action) {
+		int degree = this.degrees[v];
+		int[] targets = this.targets[v];
+		int[] weights = this.weights[v];
+		for (int e = 0; e < degree; e++) {
+			if (!action.accept(targets[e], weights[e])) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Returns the largest weight any edge of the graph has been given.
+	 * @return An upper bound on the edge weights of the graph
+	 */
+	public int maxEdgeWeight() {
+		return this.maxWeight;
+	}
+
+	/**
+	 * Returns a snapshot of the graph with every edge turned around, in compressed
+	 * sparse row form with the same ids. Later changes to this graph do not show
+	 * in the snapshot.
+	 * @return The reverse of the graph
+	 */
+	public IntGraphIfc reverse() {
+		int n = this.vertices.size();
+		int[] offsets = new int[n + 1];
+		for (int u = 0; u < n; u++) {
+			for (int e = 0; e < this.degrees[u]; e++) {
+				offsets[this.targets[u][e] + 1]++;
+			}
+		}
+		for (int v = 0; v < n; v++) {
+			offsets[v + 1] += offsets[v];
+		}
+		int[] next = Arrays.copyOf(offsets, n);
+		int[] sources = new int[this.numEdges];
+		int[] weights = new int[this.numEdges];
+		for (int u = 0; u < n; u++) {
+			for (int e = 0; e < this.degrees[u]; e++) {
+				int f = next[this.targets[u][e]]++;
+				sources[f] = u;
+				weights[f] = this.weights[u][e];
+			}
+		}
+
+		return new CsrGraph<V>(offsets, sources, weights, new CsrGraph.Labels<V>() {
+			public V vertex(int id) {
+				return Graph.this.vertex(id);
+			}
+
+			public int id(V v) {
+				return Graph.this.id(v);
+			}
+		});
+	}
+
 	/**
 	 * Returns a string representation of the graph. The string representation shows all
-	 * vertices and edges in the graph. 
+	 * vertices and edges in the graph.
 	 * @return A string representation of the graph
 	 */
 	public String toString() {
-		return "" + this.vertices;
+		StringBuilder sb = new StringBuilder("{");
+		for (int u = 0; u < this.vertices.size(); u++) {
+			if (this.vertices.get(u) == null) {
+				continue;
+			}
+			if (sb.length() > 1) {
+				sb.append(", ");
+			}
+			sb.append(this.vertices.get(u)).append("=[");
+			for (int e = 0; e < this.degrees[u]; e++) {
+				if (e > 0) {
+					sb.append(", ");
+				}
+				sb.append(this.vertices.get(this.targets[u][e]));
+				if (this.weights[u][e] != 1) {
+					sb.append(':').append(this.weights[u][e]);
+				}
+			}
+			sb.append(']');
+		}
+		return sb.append('}').toString();
+	}
+
+	/*********************************************************
+	 * 				Private helper methods
+	 *********************************************************/
+
+	/**
+	 * Returns the position of the edge from the vertex with id u to the vertex
+	 * with id v in u's edge arrays, or -1 if there is no such edge.
+	 */
+	private int find(int u, int v) {
+		int[] table = this.index[u];
+		if (table != null) {
+			int mask = (table.length >>> 1) - 1;
+			for (int s = slot(v, mask); table[2 * s] != 0; s = (s + 1) & mask) {
+				if (table[2 * s] == v + 1) {
+					return table[2 * s + 1];
+				}
+			}
+			return -1;
+		}
+
+		int[] targets = this.targets[u];
+		for (int e = 0; e < this.degrees[u]; e++) {
+			if (targets[e] == v) {
+				return e;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Builds the hash table of u's edges, with room for twice its degree so the
+	 * table stays at most half full.
+	 */
+	private void buildIndex(int u) {
+		int slots = Integer.highestOneBit(Math.max(INDEX_DEGREE, this.degrees[u]) * 4 - 1);
+		this.index[u] = new int[2 * slots];
+		for (int e = 0; e < this.degrees[u]; e++) {
+			indexPut(u, this.targets[u][e], e);
+		}
+	}
+
+	/**
+	 * Records that u's edge to v is at position e, growing the table once it is
+	 * half full.
+	 */
+	private void indexPut(int u, int v, int e) {
+		int[] table = this.index[u];
+		if (2 * this.degrees[u] > table.length >>> 1) {
+			buildIndex(u);
+			return;
+		}
+		int mask = (table.length >>> 1) - 1;
+		int s = slot(v, mask);
+		while (table[2 * s] != 0 && table[2 * s] != v + 1) {
+			s = (s + 1) & mask;
+		}
+		table[2 * s] = v + 1;
+		table[2 * s + 1] = e;
+	}
+
+	/**
+	 * Deletes u's edge to v from its table, shifting the entries after it back so
+	 * no probe sequence is broken.
+	 */
+	private void indexRemove(int u, int v) {
+		int[] table = this.index[u];
+		int mask = (table.length >>> 1) - 1;
+		int gap = slot(v, mask);
+		while (table[2 * gap] != v + 1) {
+			gap = (gap + 1) & mask;
+		}
+		for (int s = (gap + 1) & mask; table[2 * s] != 0; s = (s + 1) & mask) {
+			// An entry may fill the gap unless its home slot lies after the gap
+			int home = slot(table[2 * s] - 1, mask);
+			if (((s - home) & mask) >= ((s - gap) & mask)) {
+				table[2 * gap] = table[2 * s];
+				table[2 * gap + 1] = table[2 * s + 1];
+				gap = s;
+			}
+		}
+		table[2 * gap] = 0;
+	}
+
+	/**
+	 * Returns the home slot of neighbor v in a table of mask + 1 slots.
+	 */
+	private static int slot(int v, int mask) {
+		int h = v * 0x9E3779B9;
+		return (h ^ (h >>> 16)) & mask;
+	}
+
+	/**
+	 * Removes the edge at position e of u's edge arrays by moving u's last edge
+	 * into its place.
+	 */
+	private void removeEdgeAt(int u, int e) {
+		int last = --this.degrees[u];
+		this.inDegrees[this.targets[u][e]]--;
+		if (this.index[u] != null) {
+			indexRemove(u, this.targets[u][e]);
+			if (e != last) {
+				indexPut(u, this.targets[u][last], e);
+			}
+		}
+		this.targets[u][e] = this.targets[u][last];
+		this.weights[u][e] = this.weights[u][last];
+		this.numEdges--;
 	}
 
 }
@@ -2,6 +2,7 @@ package graph;
 
 import java.util.List;
 import java.util.Set;
+import java.util.function.Consumer;
 
 /**
  * An interface describing a Graph object. The graph can be either directed or undirected.
@@ -41,6 +42,28 @@ public interface GraphIfc<V> {
 	 */
 	public void addEdge(V u, V v);	
 
+	/**
+	 * Adds an edge between vertices u and v in the graph with the given weight. If
+	 * the edge already exists its weight is replaced.
+	 *
+	 * @param u A vertex in the graph
+	 * @param v A vertex in the graph
+	 * @param weight The non-negative weight of the edge
+	 * @throws IllegalArgumentException if either vertex does not occur in the graph.
+	 */
+	public void addEdge(V u, V v, int weight);
+
+	/**
+	 * Returns the weight of the edge from u to v. Edges added without a weight have
+	 * weight 1.
+	 *
+	 * @param u A vertex in the graph
+	 * @param v A vertex in the graph
+	 * @return The weight of the edge
+	 * @throws IllegalArgumentException if the edge does not occur in the graph.
+	 */
+	public int getWeight(V u, V v);
+
 	/**
 	 * Returns the set of all vertices in the graph.
 	 * @return A set containing all vertices in the graph
@@ -58,6 +81,28 @@ public interface GraphIfc<V> {
 	 */
 	public List<V> getNeighbors(V v);	
 
+	/**
+	 * Performs the given action on every edge leaving v, passing the neighbor the
+	 * edge leads to and the weight of the edge.
+	 *
+	 * @param v An existing node in the graph
+	 * @param action The action to perform on each edge
+	 * @throws IllegalArgumentException if the vertex does not occur in the graph
+	 */
+	public void forEachEdge(V v, EdgeConsumer<V> action);
+
+	/**
+	 * Performs the given action on every neighbor of v without copying the
+	 * neighbors into a new collection. If the graph is directed, these are the
+	 * vertices u for which an edge (v, u) exists. The neighbors are passed as
+	 * objects; traversals over int ids use {@link IntGraphIfc#scanEdges} instead.
+	 *
+	 * @param v An existing node in the graph
+	 * @param action The action to perform on each neighbor
+	 * @throws IllegalArgumentException if the vertex does not occur in the graph
+	 */
+	public void forEachNeighbor(V v, Consumer<? super V> action);
+
 	/**
 	 * Determines whether the given vertex is already contained in the graph. The comparison
 	 * is based on the <code>equals()</code> method in the class V. 
@@ -0,0 +1,750 @@
+package graph;
+
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import util.Board;
+
+/**
+ * This class represents an implicit graph over a rectangular grid of cells.
+ * Each vertex is the index <code>i * width + j</code> of an active cell, and
+ * each active cell is connected to the active cells above, below, left and
+ * right of it.  Neighbors are worked out on demand from the packed cell states
+ * of a {@link Board}, so no adjacency sets are ever built.  The grid reads the
+ * board directly, so toggling a square of the board changes the graph.  The
+ * same cell indices serve as the ids of the graph's {@link IntGraphIfc} view.
+ * <br><br>
+ * A grid may also be eight-connected. Diagonal steps are then allowed when both
+ * cells beside the step are active, so paths never cut corners, and edges carry
+ * the integer costs 10 for a straight step and 14 for a diagonal one.
+ * <br><br>
+ * Each cell also has a terrain cost from 1 to MAX_COST, kept by the board.
+ * The weight of a step is the base cost of the step times the terrain cost of
+ * the cell it enters, so a grid with non-uniform costs is a directed graph.
+ * @author Tyler Weir
+ */
+public class GridGraph implements GraphIfc<Integer>, IntGraphIfc {
+
+	private static final int STRAIGHT = 10;
+	private static final int DIAGONAL = 14;
+
+	/** The highest terrain cost a cell may have. */
+	public static final int MAX_COST = Board.MAX_COST;
+
+	private final int width;
+	private final int height;
+	private final boolean diagonal;
+	private final Board board;
+	private final long[] active;
+	private final IntGraphIfc reverse;
+
+	/**
+	 * Constructor for the grid graph class. All cells start out active and each cell
+	 * is connected to the four cells beside it.
+	 * @param width The number of columns in the grid
+	 * @param height The number of rows in the grid
+	 */
+	public GridGraph(int width, int height) {
+		this(width, height, false);
+	}
+
+	/**
+	 * Constructor for the grid graph class. All cells start out active.
+	 * @param width The number of columns in the grid
+	 * @param height The number of rows in the grid
+	 * @param diagonal True if cells are also connected to their diagonal neighbors
+	 */
+	public GridGraph(int width, int height, boolean diagonal) {
+		this(new Board(width, height), diagonal);
+	}
+
+	/**
+	 * Constructor for the grid graph class over the squares of a board. Each cell
+	 * is connected to the four cells beside it.
+	 * @param board The board that holds the state of every cell
+	 */
+	public GridGraph(Board board) {
+		this(board, false);
+	}
+
+	/**
+	 * Constructor for the grid graph class over the squares of a board.
+	 * @param board The board that holds the state of every cell
+	 * @param diagonal True if cells are also connected to their diagonal neighbors
+	 */
+	public GridGraph(Board board, boolean diagonal) {
+		this.width = board.width();
+		this.height = board.height();
+		this.diagonal = diagonal;
+		this.board = board;
+		this.active = board.activeBits();
+		this.reverse = new Reverse();
+	}
+
+	/**
+	 * Returns the board that holds the state of the cells.
+	 * @return The board of the grid
+	 */
+	public Board board() {
+		return this.board;
+	}
+
+	/**
+	 * Returns the number of columns in the grid.
+	 * @return The width of the grid
+	 */
+	public int width() {
+		return this.width;
+	}
+
+	/**
+	 * Returns the number of rows in the grid.
+	 * @return The height of the grid
+	 */
+	public int height() {
+		return this.height;
+	}
+
+	/**
+	 * Returns true if cells are connected to their diagonal neighbors.
+	 * @return True if the grid is eight-connected, false if it is four-connected
+	 */
+	public boolean isDiagonal() {
+		return this.diagonal;
+	}
+
+	/**
+	 * Returns the weight of a step to a cell beside the current one.
+	 * @return 1 for a four-connected grid, 10 for an eight-connected grid
+	 */
+	public int straightCost() {
+		return this.diagonal ? STRAIGHT : 1;
+	}
+
+	/**
+	 * Returns the cheapest way to step to a diagonal neighbor. On a four-connected
+	 * grid this takes two straight steps.
+	 * @return 2 for a four-connected grid, 14 for an eight-connected grid
+	 */
+	public int diagonalCost() {
+		return this.diagonal ? DIAGONAL : 2;
+	}
+
+	/**
+	 * Returns the row of a cell.
+	 * @param v The index of the cell
+	 * @return The row of the cell
+	 */
+	public int row(int v) {
+		return v / this.width;
+	}
+
+	/**
+	 * Returns the column of a cell.
+	 * @param v The index of the cell
+	 * @return The column of the cell
+	 */
+	public int col(int v) {
+		return v % this.width;
+	}
+
+	/**
+	 * Returns the vertex of the cell at row i and column j.
+	 * @param i The row of the cell
+	 * @param j The column of the cell
+	 * @return The index of the cell
+	 */
+	public int index(int i, int j) {
+		return i * this.width + j;
+	}
+
+	/**
+	 * Returns true if the cell at row i and column j is active.
+	 * @param i The row of the cell
+	 * @param j The column of the cell
+	 * @return True if the cell is active, false otherwise
+	 */
+	public boolean isActive(int i, int j) {
+		return on(index(i, j));
+	}
+
+	/**
+	 * Sets the state of the cell at row i and column j. Inactive cells have no
+	 * vertex in the graph.
+	 * @param i The row of the cell
+	 * @param j The column of the cell
+	 * @param isActive The new state of the cell
+	 */
+	public void setActive(int i, int j, boolean isActive) {
+		this.board.setActive(index(i, j), isActive);
+	}
+
+	/**
+	 * Returns the terrain cost of the cell at row i and column j.
+	 * @param i The row of the cell
+	 * @param j The column of the cell
+	 * @return The cost of entering the cell, from 1 to MAX_COST
+	 */
+	public int cost(int i, int j) {
+		return this.board.cost(index(i, j));
+	}
+
+	/**
+	 * Sets the terrain cost of the cell at row i and column j. Every step into the
+	 * cell is multiplied by its cost.
+	 * @param i The row of the cell
+	 * @param j The column of the cell
+	 * @param cost The new cost of the cell, from 1 to MAX_COST
+	 * @throws IllegalArgumentException if the cost is out of range
+	 */
+	public void setCost(int i, int j, int cost) {
+		this.board.setCost(index(i, j), cost);
+	}
+
+	/**
+	 * Returns true if every cell has cost 1, so that a step costs the same
+	 * wherever it is taken.
+	 * @return True if the grid has uniform costs, false otherwise
+	 */
+	public boolean isUniform() {
+		return this.board.isUniform();
+	}
+
+	/**
+	 * Returns a counter that changes whenever a cell changes state. Tables computed
+	 * from the grid can compare it to tell whether they are stale.
+	 * @return The version of the grid
+	 */
+	public int version() {
+		return this.board.version();
+	}
+
+	/**
+	 * Returns the number of vertices in the graph
+	 * @return The number of vertices in the graph
+	 */
+	public int numVertices() {
+		return this.board.numActive();
+	}
+
+	/**
+	 * Returns the number of cells in the grid. Every vertex id is a cell index.
+	 * @return The number of cells in the grid
+	 */
+	public int numIds() {
+		return this.board.size();
+	}
+
+	/**
+	 * Determines whether the given id is the index of an active cell.
+	 * @param v The id to be tested
+	 * @return True if v is a vertex of the graph, false otherwise
+	 */
+	public boolean isVertex(int v) {
+		return v >= 0 && v < this.board.size() && on(v);
+	}
+
+	/**
+	 * Returns the largest number of neighbors a cell can have.
+	 * @return The maximum degree of the graph
+	 */
+	public int maxDegree() {
+		return this.diagonal ? 8 : 4;
+	}
+
+	/**
+	 * Writes the active cells directly above, below, left and right of v into the
+	 * given buffer, followed by the reachable diagonal cells if the grid is
+	 * eight-connected.
+	 *
+	 * @param v A vertex in the graph
+	 * @param out A buffer of at least <code>maxDegree()</code> ints
+	 * @return The number of neighbors written to the buffer
+	 */
+	public int neighbors(int v, int[] out) {
+		int i = v / this.width;
+		int j = v - i * this.width;
+		int w = this.width;
+		boolean up = i > 0 && on(v - w);
+		boolean left = j > 0 && on(v - 1);
+		boolean right = j < w - 1 && on(v + 1);
+		boolean down = i < this.height - 1 && on(v + w);
+
+		int count = 0;
+		if (up) {
+			out[count++] = v - w;
+		}
+		if (left) {
+			out[count++] = v - 1;
+		}
+		if (right) {
+			out[count++] = v + 1;
+		}
+		if (down) {
+			out[count++] = v + w;
+		}
+		if (this.diagonal) {
+			if (up && left && on(v - w - 1)) {
+				out[count++] = v - w - 1;
+			}
+			if (up && right && on(v - w + 1)) {
+				out[count++] = v - w + 1;
+			}
+			if (down && left && on(v + w - 1)) {
+				out[count++] = v + w - 1;
+			}
+			if (down && right && on(v + w + 1)) {
+				out[count++] = v + w + 1;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Writes the neighbors of v and the costs of the steps to them into the given
+	 * buffers. A step costs its base cost times the cost of the cell it enters.
+	 *
+	 * @param v A vertex in the graph
+	 * @param out A buffer of at least <code>maxDegree()</code> ints
+	 * @param weights A buffer of at least <code>maxDegree()</code> ints
+	 * @return The number of neighbors written to the buffers
+	 */
+	public int neighbors(int v, int[] out, int[] weights) {
+		int count = neighbors(v, out);
+		for (int k = 0; k < count; k++) {
+			weights[k] = step(v, out[k]) * this.board.cost(out[k]);
+		}
+		return count;
+	}
+
+	/**
+	 * Performs the given action on every step from v and its cost, working the
+	 * neighbors out on the fly, so nothing is copied or boxed.
+	 *
+	 * @param v An active cell
+	 * @param action The action to perform on each step
+	 * @return True if every step was scanned, false if the action stopped early
+	 */
+	public boolean scanEdges(int v, IntEdgeConsumer action) {
+		return scan(v, false, action);
+	}
+
+	/**
+	 * Returns the cost of the most expensive step any cell could have. The bound
+	 * holds whatever costs are set later, so searches built earlier stay valid.
+	 * @return 9 for a four-connected grid, 126 for an eight-connected grid
+	 */
+	public int maxEdgeWeight() {
+		return (this.diagonal ? DIAGONAL : 1) * MAX_COST;
+	}
+
+	/**
+	 * Returns the grid with every step turned around, where a step from v costs the
+	 * terrain cost of v rather than that of the cell it enters. The view follows
+	 * later changes to the grid.
+	 * @return The reverse of the grid
+	 */
+	public IntGraphIfc reverse() {
+		return this.reverse;
+	}
+
+	/**
+	 * Returns the number of edges in the graph. Each edge between two adjacent
+	 * cells is counted once in each direction.
+	 * @return The number of edges in the graph
+	 */
+	public int numEdges() {
+		int[] buffer = new int[maxDegree()];
+		int numEdges = 0;
+		for (int v = 0; v < this.board.size(); v++) {
+			if (on(v)) {
+				numEdges += neighbors(v, buffer);
+			}
+		}
+		return numEdges;
+	}
+
+	/**
+	 * Removes all vertices from the graph by making every cell inactive.
+	 */
+	public void clear() {
+		this.board.setAllInactive();
+	}
+
+	/**
+	 * Adds a vertex to the graph by making its cell active. This method has no
+	 * effect if the vertex already exists in the graph.
+	 * @param v The vertex to be added
+	 * @throws IllegalArgumentException if the vertex lies outside of the grid
+	 */
+	public void addVertex(Integer v) {
+		if (!inBounds(v)) {
+			throw new IllegalStateException("The vertex lies outside of the grid.");
+		}
+		setActive(v / this.width, v % this.width, true);
+	}
+
+	/**
+	 * Edges of a grid graph are implied by adjacency, so this method only checks
+	 * that the edge between u and v already exists.
+	 *
+	 * @param u A vertex in the graph
+	 * @param v A vertex in the graph
+	 * @throws IllegalArgumentException if either vertex does not occur in the graph or
+	 * the vertices are not adjacent.
+	 */
+	public void addEdge(Integer u, Integer v) {
+		if (!edgeExists(u, v)) {
+			throw new IllegalStateException("Edges may only join adjacent cells of the grid.");
+		}
+	}
+
+	/**
+	 * The weights of a grid graph are set by the terrain costs of its cells, so this
+	 * method only checks that the edge between u and v already has the given weight.
+	 *
+	 * @param u A vertex in the graph
+	 * @param v A vertex in the graph
+	 * @param weight The weight of the edge
+	 * @throws IllegalArgumentException if the edge does not exist or has another weight.
+	 */
+	public void addEdge(Integer u, Integer v, int weight) {
+		if (getWeight(u, v) != weight) {
+			throw new IllegalStateException("The weight of a grid edge is set by the cost of the cell it enters.");
+		}
+	}
+
+	/**
+	 * Returns the cost of the step from u to v, its base cost times the terrain
+	 * cost of v.
+	 *
+	 * @param u A vertex in the graph
+	 * @param v A vertex in the graph
+	 * @return The weight of the edge
+	 * @throws IllegalArgumentException if the edge does not occur in the graph.
+	 */
+	public int getWeight(Integer u, Integer v) {
+		if (!edgeExists(u, v)) {
+			throw new IllegalStateException("Edges may only join adjacent cells of the grid.");
+		}
+		return step(u, v) * this.board.cost(v);
+	}
+
+	/**
+	 * Returns the set of all vertices in the graph. The set is a view over the
+	 * cell states and is not backed by any stored vertex objects.
+	 * @return A set containing all vertices in the graph
+	 */
+	public Set<Integer> getVertices() {
+		return new AbstractSet<Integer>() {
+			public int size() {
+				return board.numActive();
+			}
+
+			public boolean contains(Object o) {
+				return o instanceof Integer && containsVertex((Integer)o);
+			}
+
+			public Iterator<Integer> iterator() {
+				return new Iterator<Integer>() {
+					private int next = seek(0);
+
+					public boolean hasNext() {
+						return this.next < board.size();
+					}
+
+					public Integer next() {
+						if (!hasNext()) {
+							throw new NoSuchElementException();
+						}
+						int v = this.next;
+						this.next = seek(v + 1);
+						return v;
+					}
+				};
+			}
+		};
+	}
+
+	/**
+	 * Returns the neighbors of v in the graph. The neighbors are the active cells
+	 * directly above, below, left and right of v, and the reachable diagonal
+	 * cells if the grid is eight-connected.
+	 *
+	 * @param v An existing node in the graph
+	 * @return All neighbors of v in the graph.
+	 * @throws IllegalArgumentException if the vertex does not occur in the graph
+	 */
+	public List<Integer> getNeighbors(Integer v) {
+		if (!this.containsVertex(v)) {
+			throw new IllegalStateException("The vertex does not occur in the graph.");
+		}
+
+		List<Integer> neighbors = new ArrayList<Integer>(maxDegree());
+		scan(v, false, (n, weight) -> neighbors.add(n));
+		return neighbors;
+	}
+
+	/**
+	 * Performs the given action on every edge leaving v, passing the neighbor the
+	 * edge leads to and the cost of the step. The neighbors are worked out on the
+	 * fly, so no buffer is filled, but each neighbor is boxed to an Integer; the
+	 * searches use <code>scanEdges()</code> instead.
+	 *
+	 * @param v An existing node in the graph
+	 * @param action The action to perform on each edge
+	 * @throws IllegalArgumentException if the vertex does not occur in the graph
+	 */
+	public void forEachEdge(Integer v, EdgeConsumer<Integer> action) {
+		if (!this.containsVertex(v)) {
+			throw new IllegalStateException("The vertex does not occur in the graph.");
+		}
+		scan(v, false, (n, weight) -> {
+			action.accept(n, weight);
+			return true;
+		});
+	}
+
+	/**
+	 * Performs the given action on every neighbor of v, in the same order as
+	 * <code>neighbors()</code>. The neighbors are worked out on the fly, so no
+	 * buffer or list is filled, but each neighbor is boxed to an Integer.
+	 *
+	 * @param v An existing node in the graph
+	 * @param action The action to perform on each neighbor
+	 * @throws IllegalArgumentException if the vertex does not occur in the graph
+	 */
+	public void forEachNeighbor(Integer v, Consumer<? super Integer> action) {
+		if (!this.containsVertex(v)) {
+			throw new IllegalStateException("The vertex does not occur in the graph.");
+		}
+		scan(v, false, (n, weight) -> {
+			action.accept(n);
+			return true;
+		});
+	}
+
+	/**
+	 * Determines whether the given vertex is contained in the graph, that is whether
+	 * it names an active cell of the grid.
+	 *
+	 * @param v The vertex to be tested.
+	 * @return True if v exists in the graph, false otherwise.
+	 */
+	public boolean containsVertex(Integer v) {
+		return inBounds(v) && on(v);
+	}
+
+	/**
+	 * Determines whether an edge exists between two vertices. Two vertices share an
+	 * edge when their cells are active and adjacent, and for a diagonal step when
+	 * the two cells beside the step are active too.
+	 * @param v A node in the graph
+	 * @param u A node in the graph
+	 * @return True if an edge exists between the two vertices
+	 * @throws IllegalArgumentException if either vertex does not occur in the graph
+	 */
+	public boolean edgeExists(Integer v, Integer u) {
+		boolean containsVertices = this.containsVertex(u) & this.containsVertex(v);
+		if (!containsVertices) {
+			throw new IllegalStateException("One or both vertices do not occur in the graph.");
+		}
+
+		int di = Math.abs(v / this.width - u / this.width);
+		int dj = Math.abs(v % this.width - u % this.width);
+		if (di + dj == 1) {
+			return true;
+		}
+		return this.diagonal && di == 1 && dj == 1
+			&& on((v / this.width) * this.width + u % this.width)
+			&& on((u / this.width) * this.width + v % this.width);
+	}
+
+	/**
+	 * Returns the degree of the vertex.
+	 * @param v A vertex in the graph
+	 * @return The degree of the vertex
+	 * @throws IllegalArgumentException if the vertex does not occur in the graph
+	 */
+	public int degree(Integer v) {
+		if (!this.containsVertex(v)) {
+			throw new IllegalStateException("The vertex does not occur in the graph.");
+		}
+
+		int i = v / this.width;
+		int j = v - i * this.width;
+		int w = this.width;
+		boolean up = i > 0 && on(v - w);
+		boolean left = j > 0 && on(v - 1);
+		boolean right = j < w - 1 && on(v + 1);
+		boolean down = i < this.height - 1 && on(v + w);
+
+		int degree = (up ? 1 : 0) + (left ? 1 : 0) + (right ? 1 : 0) + (down ? 1 : 0);
+		if (this.diagonal) {
+			degree += (up && left && on(v - w - 1) ? 1 : 0) + (up && right && on(v - w + 1) ? 1 : 0)
+				+ (down && left && on(v + w - 1) ? 1 : 0) + (down && right && on(v + w + 1) ? 1 : 0);
+		}
+		return degree;
+	}
+
+	/**
+	 * Returns a string representation of the graph. Active cells of cost 1 are drawn
+	 * as '.', costlier active cells as their cost and inactive cells as '#'.
+	 * @return A string representation of the graph
+	 */
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		for (int v = 0; v < this.board.size(); v++) {
+			sb.append(!on(v) ? '#' : this.board.cost(v) == 1 ? '.' : (char)('0' + this.board.cost(v)));
+			if (v % this.width == this.width - 1) {
+				sb.append('\n');
+			}
+		}
+		return sb.toString();
+	}
+
+	/*********************************************************
+	 * 				Private helper methods
+	 *********************************************************/
+
+	/**
+	 * Returns true if cell v is active, reading the board's bitset directly.
+	 */
+	private boolean on(int v) {
+		return (this.active[v >>> 6] & (1L << v)) != 0;
+	}
+
+	/**
+	 * Passes each step from v to the action, in the order <code>neighbors()</code>
+	 * writes them, until the action returns false. A step costs the terrain cost
+	 * of the cell it enters, or of v itself if the grid is read reversed.
+	 */
+	private boolean scan(int v, boolean reversed, IntEdgeConsumer action) {
+		int i = v / this.width;
+		int j = v - i * this.width;
+		int w = this.width;
+		boolean up = i > 0 && on(v - w);
+		boolean left = j > 0 && on(v - 1);
+		boolean right = j < w - 1 && on(v + 1);
+		boolean down = i < this.height - 1 && on(v + w);
+
+		if (up && !action.accept(v - w, cost(v, v - w, reversed))) {
+			return false;
+		}
+		if (left && !action.accept(v - 1, cost(v, v - 1, reversed))) {
+			return false;
+		}
+		if (right && !action.accept(v + 1, cost(v, v + 1, reversed))) {
+			return false;
+		}
+		if (down && !action.accept(v + w, cost(v, v + w, reversed))) {
+			return false;
+		}
+		if (this.diagonal) {
+			if (up && left && on(v - w - 1) && !action.accept(v - w - 1, cost(v, v - w - 1, reversed))) {
+				return false;
+			}
+			if (up && right && on(v - w + 1) && !action.accept(v - w + 1, cost(v, v - w + 1, reversed))) {
+				return false;
+			}
+			if (down && left && on(v + w - 1) && !action.accept(v + w - 1, cost(v, v + w - 1, reversed))) {
+				return false;
+			}
+			if (down && right && on(v + w + 1) && !action.accept(v + w + 1, cost(v, v + w + 1, reversed))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Returns the cost of the step from v to n, read forwards or reversed.
+	 */
+	private int cost(int v, int n, boolean reversed) {
+		return step(v, n) * this.board.cost(reversed ? v : n);
+	}
+
+	/**
+	 * Returns the base cost of the step between two adjacent cells.
+	 */
+	private int step(int u, int v) {
+		if (!this.diagonal) {
+			return 1;
+		}
+		int d = v - u;
+		return d == 1 || d == -1 || d == this.width || d == -this.width ? STRAIGHT : DIAGONAL;
+	}
+
+	/**
+	 * Returns true if v is the index of a cell of the grid.
+	 */
+	private boolean inBounds(Integer v) {
+		return v != null && v >= 0 && v < this.board.size();
+	}
+
+	/**
+	 * Returns the first active cell at or after index v, or the number of cells
+	 * if there is none.
+	 */
+	private int seek(int v) {
+		while (v < this.board.size() && !on(v)) {
+			v++;
+		}
+		return v;
+	}
+
+	/**
+	 * The grid with every step turned around. It has the same cells and steps as
+	 * the grid, but a step costs the terrain cost of the cell it leaves.
+	 */
+	private class Reverse implements IntGraphIfc {
+		public int numIds() {
+			return GridGraph.this.numIds();
+		}
+
+		public int numVertices() {
+			return GridGraph.this.numVertices();
+		}
+
+		public boolean isVertex(int v) {
+			return GridGraph.this.isVertex(v);
+		}
+
+		public int maxDegree() {
+			return GridGraph.this.maxDegree();
+		}
+
+		public int neighbors(int v, int[] out) {
+			return GridGraph.this.neighbors(v, out);
+		}
+
+		public int neighbors(int v, int[] out, int[] weights) {
+			int count = GridGraph.this.neighbors(v, out);
+			for (int k = 0; k < count; k++) {
+				weights[k] = step(v, out[k]) * board.cost(v);
+			}
+			return count;
+		}
+
+		public boolean scanEdges(int v, IntEdgeConsumer action) {
+			return scan(v, true, action);
+		}
+
+		public int maxEdgeWeight() {
+			return GridGraph.this.maxEdgeWeight();
+		}
+
+		public IntGraphIfc reverse() {
+			return GridGraph.this;
+		}
+
+		public int version() {
+			return GridGraph.this.version();
+		}
+	}
+}
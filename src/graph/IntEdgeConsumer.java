@@ -0,0 +1,19 @@
+package graph;
+
+/**
+ * An action performed on each edge leaving a vertex of an {@link IntGraphIfc},
+ * given the id of the vertex the edge leads to and the weight of the edge.  Both
+ * are plain ints, so no wrapper object is created per edge.
+ * @author Tyler Weir
+ */
+@FunctionalInterface
+public interface IntEdgeConsumer {
+
+	/**
+	 * Performs the action on one edge.
+	 * @param target The id of the vertex the edge leads to
+	 * @param weight The weight of the edge
+	 * @return True to go on to the next edge, false to stop the scan
+	 */
+	public boolean accept(int target, int weight);
+}
@@ -0,0 +1,112 @@
+package graph;
+
+import java.util.Arrays;
+
+/**
+ * An interface describing a graph whose vertices are identified by dense int ids
+ * in the range [0, numIds()).  Traversals over an IntGraphIfc work on ints alone,
+ * so they never box vertices or look them up through <code>hashCode()</code>.
+ * Some ids may be unused, for example the inactive cells of a grid.
+ * @author Tyler Weir
+ */
+public interface IntGraphIfc {
+
+	/**
+	 * Returns the number of vertex ids. Every vertex has an id smaller than this.
+	 * @return The size of the id space of the graph
+	 */
+	public int numIds();
+
+	/**
+	 * Returns the number of vertices in the graph
+	 * @return The number of vertices in the graph
+	 */
+	public int numVertices();
+
+	/**
+	 * Determines whether the given id names a vertex of the graph.
+	 * @param v The id to be tested
+	 * @return True if v is a vertex of the graph, false otherwise
+	 */
+	public boolean isVertex(int v);
+
+	/**
+	 * Returns the largest number of neighbors any vertex can have. A buffer of
+	 * this length is always large enough for <code>neighbors()</code>.
+	 * @return The maximum out degree of the graph
+	 */
+	public int maxDegree();
+
+	/**
+	 * Writes the neighbors of v into the given buffer. If the graph is directed,
+	 * these are the vertices u for which an edge (v, u) exists.
+	 *
+	 * @param v A vertex in the graph
+	 * @param out A buffer of at least <code>maxDegree()</code> ints
+	 * @return The number of neighbors written to the buffer
+	 */
+	public int neighbors(int v, int[] out);
+
+	/**
+	 * Writes the neighbors of v into one buffer and the weights of the edges that
+	 * lead to them into another. By default every edge has weight 1.
+	 *
+	 * @param v A vertex in the graph
+	 * @param out A buffer of at least <code>maxDegree()</code> ints
+	 * @param weights A buffer of at least <code>maxDegree()</code> ints
+	 * @return The number of neighbors written to the buffers
+	 */
+	public default int neighbors(int v, int[] out, int[] weights) {
+		int count = neighbors(v, out);
+		Arrays.fill(weights, 0, count, 1);
+		return count;
+	}
+
+	/**
+	 * Performs the given action on every edge leaving v, in the order
+	 * <code>neighbors()</code> writes them, until the action returns false. The
+	 * graphs of this package read the edges in place, so nothing is copied or
+	 * boxed; the default copies them through a pair of fresh buffers.
+	 *
+	 * @param v A vertex in the graph
+	 * @param action The action to perform on each edge
+	 * @return True if every edge was scanned, false if the action stopped early
+	 */
+	public default boolean scanEdges(int v, IntEdgeConsumer action) {
+		int[] out = new int[maxDegree()];
+		int[] weights = new int[maxDegree()];
+		int count = neighbors(v, out, weights);
+		for (int k = 0; k < count; k++) {
+			if (!action.accept(out[k], weights[k])) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Returns an upper bound on the weight of any edge. Weights are never negative.
+	 * @return The largest edge weight of the graph
+	 */
+	public default int maxEdgeWeight() {
+		return 1;
+	}
+
+	/**
+	 * Returns a counter that changes whenever the vertices or edges of the graph
+	 * change, so tables and searches built from the graph can tell when they are
+	 * stale. A graph that never changes may always return 0.
+	 * @return The version of the graph
+	 */
+	public default int version() {
+		return 0;
+	}
+
+	/**
+	 * Returns the graph with every edge turned around, so that the neighbors of v
+	 * are the vertices with an edge into v. Ids and weights are unchanged. A graph
+	 * whose edges all go both ways with equal weights may return itself.
+	 * @return The reverse of the graph
+	 */
+	public IntGraphIfc reverse();
+}
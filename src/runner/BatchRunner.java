@@ -0,0 +1,399 @@
+package runner;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import graph.GridGraph;
+import search.*;
+import util.Board;
+
+/**
+ * A command line entry point that runs the search algorithms without a window.
+ * It loads a board from an ASCII map or generates a random one, runs each chosen
+ * algorithm at full speed with a listener that does nothing, and prints the time,
+ * the number of expanded squares and the path found.  Nothing here touches AWT,
+ * so it runs on machines without a display.
+ * <br><br>
+ * In a map file '.' is an open square, '#' a blocked square and a digit from 2
+ * to 9 an open square with that terrain cost.  'S' and 'T' mark the start and
+ * the target.  Run with <code>--help</code> for the options.
+ *
+ * @author Tyler Weir
+ */
+public class BatchRunner {
+    /** The names of the algorithms, in the order they are run by default. */
+    static final String[] ALGORITHMS = {"dfs", "bfs", "bitbfs", "pbfs", "dijkstra", "delta", "astar", "jps", "jps+", "bibfs", "bidijkstra"};
+
+    private static final String USAGE = String.join("\n",
+        "usage: java runner.BatchRunner [options]",
+        "  --map FILE          load the board from an ASCII map",
+        "  --size WxH          generate a random board of W columns and H rows (default 256x256)",
+        "  --density P         fraction of blocked squares in a generated board (default 0.2)",
+        "  --seed N            seed for the generated board and queries (default 1)",
+        "  --diagonal          connect squares to their diagonal neighbors",
+        "  --algorithms A,B    comma separated list of " + String.join(", ", ALGORITHMS),
+        "  --queries N         number of random start and target pairs (default 1)",
+        "  --warmup N          untimed runs of each query before timing (default 0)",
+        "  --threads N         answer the queries as one batch on N worker threads");
+
+    private Board board;
+    private boolean diagonal;
+    private int start = -1;
+    private int target = -1;
+    private long seed = 1;
+    private int queries = 1;
+    private int warmup = 0;
+    private int threads = 0;
+    private List<String> algorithms = new ArrayList<String>();
+
+    public static void main(String[] args) {
+        BatchRunner runner = new BatchRunner();
+        try {
+            runner.parse(args);
+        } catch (IllegalStateException | IOException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USAGE);
+            System.exit(2);
+        }
+        runner.run();
+    }
+
+    /**
+     * Reads the command line options, loading or generating the board.
+     *
+     * @param args The command line arguments.
+     * @throws IOException if the map file cannot be read.
+     */
+    void parse(String[] args) throws IOException {
+        String map = null;
+        int width = 256, height = 256;
+        double density = 0.2;
+
+        for (int k = 0; k < args.length; k++) {
+            switch (args[k]) {
+                case "--map":
+                    map = value(args, ++k);
+                    break;
+                case "--size":
+                    String[] size = value(args, ++k).split("x");
+                    if (size.length != 2) {
+                        throw new IllegalStateException("The size must look like 256x256.");
+                    }
+                    width = number(size[0]);
+                    height = number(size[1]);
+                    break;
+                case "--density":
+                    density = fraction(value(args, ++k));
+                    break;
+                case "--seed":
+                    this.seed = number(value(args, ++k));
+                    break;
+                case "--diagonal":
+                    this.diagonal = true;
+                    break;
+                case "--algorithms":
+                    for (String name : value(args, ++k).split(",")) {
+                        if (!List.of(ALGORITHMS).contains(name)) {
+                            throw new IllegalStateException("Unknown algorithm: " + name);
+                        }
+                        this.algorithms.add(name);
+                    }
+                    break;
+                case "--queries":
+                    this.queries = number(value(args, ++k));
+                    break;
+                case "--warmup":
+                    this.warmup = number(value(args, ++k));
+                    break;
+                case "--threads":
+                    this.threads = number(value(args, ++k));
+                    break;
+                case "--help":
+                    System.out.println(USAGE);
+                    System.exit(0);
+                    break;
+                default:
+                    throw new IllegalStateException("Unknown option: " + args[k]);
+            }
+        }
+
+        if (this.algorithms.isEmpty()) {
+            this.algorithms.addAll(List.of(ALGORITHMS));
+        }
+        if (map != null) {
+            load(Files.readAllLines(Paths.get(map)));
+        } else {
+            generate(width, height, density);
+        }
+        if (this.board.numActive() == 0) {
+            throw new IllegalStateException("The board has no open squares.");
+        }
+    }
+
+    /**
+     * Runs every chosen algorithm on the same queries and prints one line for each.
+     */
+    void run() {
+        GridGraph grid = new GridGraph(this.board, this.diagonal);
+        int[][] pairs = queries(grid);
+        System.out.println("board " + this.board.width() + "x" + this.board.height()
+            + (this.diagonal ? " eight-connected" : " four-connected")
+            + ", " + this.board.numActive() + " open squares, " + pairs.length + " queries");
+        System.out.printf("%-12s %12s %12s %12s %12s%n", "algorithm", "total ms", "expanded", "path length", "path cost");
+
+        for (String name : this.algorithms) {
+            if (!isSupported(name, grid)) {
+                System.out.printf("%-12s %12s%n", name, "skipped, not supported on this board");
+                continue;
+            }
+            if (this.threads > 0) {
+                runBatch(name, grid, pairs);
+                continue;
+            }
+            GraphSearch search = newSearch(name, grid);
+
+            long nanos = 0, expanded = 0, length = 0, cost = 0;
+            for (int[] pair : pairs) {
+                for (int k = 0; k < this.warmup; k++) {
+                    search.findPath(pair[0], pair[1]);
+                }
+                long begin = System.nanoTime();
+                int[] path = search.findPath(pair[0], pair[1]);
+                nanos += System.nanoTime() - begin;
+                expanded += search.expandedCount();
+                length += Math.max(0, path.length - 1);
+                cost += cost(grid, path);
+            }
+            System.out.printf("%-12s %12.3f %12d %12d %12d%n", name, nanos / 1e6, expanded, length, cost);
+        }
+    }
+
+    /**
+     * Answers the queries as one batch on a query engine and prints the wall
+     * clock time of the batch. The engine does not count expanded squares.
+     */
+    void runBatch(String name, GridGraph grid, int[][] pairs) {
+        int[] sources = new int[pairs.length];
+        int[] targets = new int[pairs.length];
+        for (int q = 0; q < pairs.length; q++) {
+            sources[q] = pairs[q][0];
+            targets[q] = pairs[q][1];
+        }
+
+        try (QueryEngine engine = new QueryEngine(grid, g -> newSearch(name, (GridGraph)g), this.threads)) {
+            for (int k = 0; k < this.warmup; k++) {
+                engine.submit(sources, targets).join();
+            }
+            long begin = System.nanoTime();
+            int[][] paths = engine.submit(sources, targets).join();
+            long nanos = System.nanoTime() - begin;
+
+            long length = 0, cost = 0;
+            for (int[] path : paths) {
+                length += Math.max(0, path.length - 1);
+                cost += cost(grid, path);
+            }
+            System.out.printf("%-12s %12.3f %12s %12d %12d%n", name, nanos / 1e6, "-", length, cost);
+        }
+    }
+
+    /**
+     * Returns true if the named algorithm can run on the grid, without building
+     * its search.
+     *
+     * @param name One of ALGORITHMS.
+     * @param grid The grid to search.
+     * @return True if newSearch would return a search, false otherwise.
+     */
+    static boolean isSupported(String name, GridGraph grid) {
+        switch (name) {
+            case "bitbfs":
+                return !grid.isDiagonal();
+            case "jps":
+            case "jps+":
+                return grid.isDiagonal() && grid.isUniform();
+            default:
+                return List.of(ALGORITHMS).contains(name);
+        }
+    }
+
+    /**
+     * Creates the named search over the grid with a listener that does nothing.
+     *
+     * @param name One of ALGORITHMS.
+     * @param grid The grid to search.
+     * @return The search, or null if the algorithm cannot run on the grid.
+     */
+    static GraphSearch newSearch(String name, GridGraph grid) {
+        VisitListener none = VisitListener.NONE;
+        Heuristic heuristic = grid.isDiagonal() ? Heuristic.octile(grid) : Heuristic.manhattan(grid);
+        switch (name) {
+            case "dfs":
+                return new DepthFirstSearch(grid, none);
+            case "bfs":
+                return new BreadthFirstSearch(grid, none);
+            case "bitbfs":
+                return isSupported(name, grid) ? new BitParallelBreadthFirstSearch(grid, none) : null;
+            case "pbfs":
+                return new ParallelBreadthFirstSearch(grid, none);
+            case "dijkstra":
+                return new DijkstraSearch(grid, none);
+            case "delta":
+                return new DeltaSteppingSearch(grid, none);
+            case "astar":
+                return new AStarSearch(grid, heuristic, none);
+            case "jps":
+                return isSupported(name, grid) ? new JumpPointSearch(grid, none) : null;
+            case "jps+":
+                return isSupported(name, grid) ? new JumpPointSearch(grid, new JumpPointTable(grid), none) : null;
+            case "bibfs":
+                return new BidirectionalBreadthFirstSearch(grid, none);
+            case "bidijkstra":
+                return new BidirectionalDijkstraSearch(grid, none);
+            default:
+                return null;
+        }
+    }
+
+    /*********************************************************
+     * 				Private helper methods
+     *********************************************************/
+
+    /**
+     * Builds the board from the lines of an ASCII map.
+     */
+    private void load(List<String> lines) {
+        while (!lines.isEmpty() && lines.get(lines.size() - 1).isEmpty()) {
+            lines.remove(lines.size() - 1);
+        }
+        int height = lines.size();
+        int width = 0;
+        for (String line : lines) {
+            width = Math.max(width, line.length());
+        }
+        if (height == 0 || width == 0) {
+            throw new IllegalStateException("The map is empty.");
+        }
+
+        this.board = new Board(width, height);
+        for (int i = 0; i < height; i++) {
+            String line = lines.get(i);
+            for (int j = 0; j < width; j++) {
+                char c = j < line.length() ? line.charAt(j) : '#';
+                int v = this.board.index(i, j);
+                if (c == '#') {
+                    this.board.setActive(v, false);
+                } else if (c >= '2' && c <= '9') {
+                    this.board.setCost(v, c - '0');
+                } else if (c == 'S') {
+                    this.start = v;
+                } else if (c == 'T') {
+                    this.target = v;
+                } else if (c != '.' && c != '1') {
+                    throw new IllegalStateException("Unknown square '" + c + "' at row " + i + ", column " + j + ".");
+                }
+            }
+        }
+    }
+
+    /**
+     * Generates a board with the given fraction of randomly blocked squares.
+     */
+    private void generate(int width, int height, double density) {
+        this.board = new Board(width, height);
+        Random random = new Random(this.seed);
+        for (int v = 0; v < this.board.size(); v++) {
+            if (random.nextDouble() < density) {
+                this.board.setActive(v, false);
+            }
+        }
+    }
+
+    /**
+     * Returns the start and target of each query. A map with S and T marks gives
+     * a single query. Otherwise the first query runs corner to corner if both
+     * corners are open, and the rest join random open squares. The board is
+     * never changed.
+     */
+    private int[][] queries(GridGraph grid) {
+        if (this.start >= 0 && this.target >= 0) {
+            return new int[][] {{this.start, this.target}};
+        }
+
+        int last = this.board.size() - 1;
+        boolean corners = grid.isVertex(0) && grid.isVertex(last);
+        Random random = new Random(this.seed + 1);
+        int[][] pairs = new int[this.queries][];
+        for (int q = 0; q < this.queries; q++) {
+            pairs[q] = q == 0 && corners ? new int[] {0, last} : new int[] {open(grid, random), open(grid, random)};
+        }
+        return pairs;
+    }
+
+    /**
+     * Picks a random open square.
+     */
+    private int open(GridGraph grid, Random random) {
+        while (true) {
+            int v = random.nextInt(this.board.size());
+            if (grid.isVertex(v)) {
+                return v;
+            }
+        }
+    }
+
+    /**
+     * Returns the cost of a path on the grid.
+     */
+    private static long cost(GridGraph grid, int[] path) {
+        long cost = 0;
+        for (int k = 1; k < path.length; k++) {
+            cost += grid.getWeight(path[k - 1], path[k]);
+        }
+        return cost;
+    }
+
+    /**
+     * Returns the value following an option.
+     */
+    private static String value(String[] args, int k) {
+        if (k >= args.length) {
+            throw new IllegalStateException("The option " + args[k - 1] + " needs a value.");
+        }
+        return args[k];
+    }
+
+    /**
+     * Parses a fraction between 0 and 1.
+     */
+    private static double fraction(String s) {
+        try {
+            double p = Double.parseDouble(s);
+            if (p >= 0 && p <= 1) {
+                return p;
+            }
+        } catch (NumberFormatException e) {
+            // Reported below
+        }
+        throw new IllegalStateException("Expected a fraction between 0 and 1 but found " + s + ".");
+    }
+
+    /**
+     * Parses a non-negative number.
+     */
+    private static int number(String s) {
+        try {
+            int n = Integer.parseInt(s);
+            if (n >= 0) {
+                return n;
+            }
+        } catch (NumberFormatException e) {
+            // Reported below
+        }
+        throw new IllegalStateException("Expected a non-negative number but found " + s + ".");
+    }
+}
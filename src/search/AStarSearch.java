@@ -0,0 +1,138 @@
+package search;
+
+import graph.IntGraphIfc;
+import util.IntIndexedMinHeap;
+
+/**
+ * An implementation of the A* search algorithm over int vertex ids.  The queue is
+ * ordered by f = g + h, where g is the cost of the best known path to a vertex
+ * and h is the heuristic estimate of the cost from there to the target.  With an
+ * admissible heuristic A* finds the same shortest paths as Dijkstra's algorithm
+ * while expanding far fewer vertices on open maps.
+ * <br><br>
+ * Vertices of equal f are ordered by the chosen {@link TieBreak}.  Without a
+ * target the search explores like Dijkstra's algorithm.
+ * 
+ * @author Tyler Weir
+ */
+public class AStarSearch extends GraphSearch {
+    /**
+     * How vertices with the same f value are ordered in the queue.
+     */
+    public enum TieBreak {
+        /** Leave ties in whatever order the heap keeps them. */
+        NONE,
+        /** Prefer the vertex with the lower h, the one nearest the target. */
+        LOW_H,
+        /** Prefer the vertex with the higher h, the one nearest the start. */
+        HIGH_H
+    }
+
+    private final Heuristic heuristic;
+    private final TieBreak tieBreak;
+    private final int[] ties;
+    private final int[] weights;
+    private final IntIndexedMinHeap Q;
+
+    /**
+     * Constructs an A* search that breaks ties towards the target.
+     * 
+     * @param graph The graph the search will explore.
+     * @param heuristic The estimate of the remaining cost to the target.
+     * @param listener The listener told about every visited vertex.
+     */
+    public AStarSearch(IntGraphIfc graph, Heuristic heuristic, VisitListener listener) {
+        this(graph, heuristic, TieBreak.LOW_H, listener);
+    }
+
+    /**
+     * Constructs an A* search.
+     * 
+     * @param graph The graph the search will explore.
+     * @param heuristic The estimate of the remaining cost to the target.
+     * @param tieBreak The order of vertices with equal f.
+     * @param listener The listener told about every visited vertex.
+     */
+    public AStarSearch(IntGraphIfc graph, Heuristic heuristic, TieBreak tieBreak, VisitListener listener) {
+        super(graph, listener);
+        this.heuristic = heuristic;
+        this.tieBreak = tieBreak;
+        this.ties = new int[graph.numIds()];
+        this.weights = new int[graph.maxDegree()];
+        this.Q = new IntIndexedMinHeap(graph.numIds(), tieBreak == TieBreak.NONE ? null : this.ties);
+    }
+
+    /**
+     * Returns the tie breaking rule of the search.
+     * 
+     * @return The order of vertices with equal f.
+     */
+    public TieBreak tieBreak() {
+        return this.tieBreak;
+    }
+
+    /**
+     * Searches from s, stopping once the target is popped from the queue.
+     */
+    protected boolean search(int s, int target) {
+        Heuristic heuristic = target == NO_TARGET ? Heuristic.ZERO : this.heuristic;
+
+        // The second key of a vertex is its h, negated to prefer high values
+        int sign = this.tieBreak == TieBreak.HIGH_H ? -1 : 1;
+
+        IntIndexedMinHeap Q = this.Q;
+        Q.clear();
+        SearchScratch scratch = this.scratch;
+        scratch.reset();
+
+        int hs = heuristic.estimate(s, target);
+        this.ties[s] = sign * hs;
+        scratch.reach(s, 0, -1);
+        this.listener.visit(s);
+        Q.push(hs, s);
+
+        while (!Q.isEmpty()) {
+            int u = Q.topElement();
+            Q.pop();
+            if (u == target) {
+                return true;
+            }
+            this.expanded++;
+
+            int gu = scratch.distance(u);
+            int count = this.graph.neighbors(u, this.neighbors, this.weights);
+            for (int k = 0; k < count; k++) {
+                int n = this.neighbors[k];
+                int alt = gu + this.weights[k];
+
+                if (!scratch.isReached(n)) {
+                    int hn = heuristic.estimate(n, target);
+                    this.ties[n] = sign * hn;
+                    scratch.reach(n, alt, u);
+                    this.listener.visit(n);
+                    Q.push(alt + hn, n);
+                } else if (alt < scratch.distance(n)) {
+                    // Only an inconsistent heuristic reopens a vertex already expanded
+                    int f = alt + sign * this.ties[n];
+                    scratch.reach(n, alt, u);
+                    if (Q.contains(n)) {
+                        Q.changePriority(n, f);
+                    } else {
+                        Q.push(f, n);
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the cost of the best path the last run found from its start to v.
+     * 
+     * @param v A vertex id.
+     * @return The cost of the path, or SearchScratch.INFINITY if v was not reached.
+     */
+    public int distance(int v) {
+        return this.scratch.distance(v);
+    }
+}
@@ -0,0 +1,160 @@
+package search;
+
+import graph.IntGraphIfc;
+
+/**
+ * A breadth first search that answers point to point queries from both ends.
+ * One search runs forward from the start and another backward from the target
+ * over the reverse graph.  Each round the side with the smaller frontier expands
+ * one whole level, so on open maps each side only searches about half as far.
+ * <br><br>
+ * Once the two searches meet, the shortest path found so far can still be beaten
+ * by one that has not been seen.  Every path not yet found is at least as long as
+ * the sum of the two frontier depths, so the search stops only when the best path
+ * is no longer than that.  Without a target the search is a plain forward BFS.
+ * The reverse graph is built again before a run if the graph has changed.
+ *
+ * @author Tyler Weir
+ */
+public class BidirectionalBreadthFirstSearch extends GraphSearch {
+    private final SearchScratch backward;
+    private int[] backNeighbors;
+    private final int[] forwardQueue;
+    private final int[] backwardQueue;
+
+    /**
+     * Constructs a bidirectional breadth first search over the given graph.
+     *
+     * @param graph The graph the search will explore.
+     * @param listener The listener told about every vertex visited from either end.
+     */
+    public BidirectionalBreadthFirstSearch(IntGraphIfc graph, VisitListener listener) {
+        super(graph, listener);
+        this.backward = new SearchScratch(graph.numIds());
+        this.backNeighbors = new int[reverse().maxDegree()];
+        this.forwardQueue = new int[graph.numIds()];
+        this.backwardQueue = new int[graph.numIds()];
+    }
+
+    /**
+     * Searches from both s and the target, one level at a time, until the best
+     * meeting point is known.  The backward half of the path is then copied into
+     * the forward parents so the whole path can be read back from the target.
+     */
+    protected boolean search(int s, int target) {
+        IntGraphIfc reverse = reverse();
+        if (this.backNeighbors.length < reverse.maxDegree()) {
+            this.backNeighbors = new int[reverse.maxDegree()];
+        }
+        SearchScratch forward = this.scratch;
+        SearchScratch backward = this.backward;
+        forward.reset();
+        backward.reset();
+        int[] fq = this.forwardQueue;
+        int[] bq = this.backwardQueue;
+        int fHead = 0, fTail = 0, bHead = 0, bTail = 0;
+
+        forward.reach(s, 0, -1);
+        fq[fTail++] = s;
+        this.listener.visit(s);
+        if (s == target) {
+            return true;
+        }
+        if (target != NO_TARGET) {
+            backward.reach(target, 0, -1);
+            bq[bTail++] = target;
+            this.listener.visit(target);
+        }
+
+        // The depth of the vertices waiting in each queue
+        int forwardDepth = 0;
+        int backwardDepth = 0;
+        int best = SearchScratch.INFINITY;
+        int meetFrom = -1, meetTo = -1;
+
+        while (fHead < fTail && (target == NO_TARGET || bHead < bTail)) {
+            if (target == NO_TARGET || fTail - fHead <= bTail - bHead) {
+                int end = fTail;
+                while (fHead < end) {
+                    int u = fq[fHead++];
+                    this.expanded++;
+                    int count = this.graph.neighbors(u, this.neighbors);
+                    for (int k = 0; k < count; k++) {
+                        int v = this.neighbors[k];
+                        if (!forward.isReached(v)) {
+                            forward.reach(v, forwardDepth + 1, u);
+                            fq[fTail++] = v;
+                            this.listener.visit(v);
+                        }
+                        if (backward.isReached(v) && forwardDepth + 1 + backward.distance(v) < best) {
+                            best = forwardDepth + 1 + backward.distance(v);
+                            meetFrom = u;
+                            meetTo = v;
+                        }
+                    }
+                }
+                forwardDepth++;
+            } else {
+                int end = bTail;
+                while (bHead < end) {
+                    int u = bq[bHead++];
+                    this.expanded++;
+                    int count = reverse.neighbors(u, this.backNeighbors);
+                    for (int k = 0; k < count; k++) {
+                        int v = this.backNeighbors[k];
+                        if (!backward.isReached(v)) {
+                            backward.reach(v, backwardDepth + 1, u);
+                            bq[bTail++] = v;
+                            this.listener.visit(v);
+                        }
+                        if (forward.isReached(v) && forward.distance(v) + 1 + backwardDepth < best) {
+                            best = forward.distance(v) + 1 + backwardDepth;
+                            meetFrom = v;
+                            meetTo = u;
+                        }
+                    }
+                }
+                backwardDepth++;
+            }
+
+            if (best <= forwardDepth + backwardDepth) {
+                join(meetFrom, meetTo, target);
+                return true;
+            }
+        }
+
+        if (best < SearchScratch.INFINITY) {
+            join(meetFrom, meetTo, target);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Returns the number of edges on a shortest path from the last start vertex to v.
+     * After a point to point query only the vertices on the path and those reached
+     * by the forward search have a distance.
+     *
+     * @param v A vertex id.
+     * @return The distance to v, or -1 if v was not reached.
+     */
+    public int distance(int v) {
+        return this.scratch.isReached(v) ? this.scratch.distance(v) : -1;
+    }
+
+    /**
+     * Links the edge (u, v) where the searches met and the backward path from v
+     * to the target into the forward parents.
+     */
+    private void join(int u, int v, int target) {
+        SearchScratch forward = this.scratch;
+        SearchScratch backward = this.backward;
+        int total = forward.distance(u) + 1 + backward.distance(v);
+        forward.reach(v, total - backward.distance(v), u);
+        while (v != target) {
+            int next = backward.parent(v);
+            forward.reach(next, total - backward.distance(next), v);
+            v = next;
+        }
+    }
+}
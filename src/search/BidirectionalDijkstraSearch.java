@@ -0,0 +1,174 @@
+package search;
+
+import graph.IntGraphIfc;
+import util.IntPriorityQueueIfc;
+
+/**
+ * Dijkstra's algorithm run from both ends of a point to point query.  A forward
+ * search settles vertices from the start while a backward search settles them
+ * from the target over the reverse graph, and each step the side with the lower
+ * queue minimum goes next.  Every edge scanned into a vertex the other side has
+ * reached gives a path, and the shortest such path is kept.
+ * <br><br>
+ * The first vertex settled by both sides need not lie on a shortest path.  The
+ * search instead stops once the two queue minimums add up to at least the best
+ * path found, since any path not yet seen must cost at least that much.  Each
+ * side keeps its own queue, picked as in {@link DijkstraSearch}.  Without a target
+ * the search is a plain forward Dijkstra.  The reverse graph is built again
+ * before a run if the graph has changed.
+ *
+ * @author Tyler Weir
+ */
+public class BidirectionalDijkstraSearch extends GraphSearch {
+    private final SearchScratch backward;
+    private final IntPriorityQueueIfc forwardQueue;
+    private final IntPriorityQueueIfc backwardQueue;
+    private final int[] weights;
+    private int[] backNeighbors;
+    private int[] backWeights;
+
+    /**
+     * Constructs a bidirectional Dijkstra search over the given graph.
+     *
+     * @param graph The graph the search will explore.
+     * @param listener The listener told about every vertex visited from either end.
+     */
+    public BidirectionalDijkstraSearch(IntGraphIfc graph, VisitListener listener) {
+        super(graph, listener);
+        IntGraphIfc reverse = reverse();
+        this.backward = new SearchScratch(graph.numIds());
+        this.forwardQueue = DijkstraSearch.defaultQueue(graph);
+        this.backwardQueue = DijkstraSearch.defaultQueue(reverse);
+        this.weights = new int[graph.maxDegree()];
+        this.backNeighbors = new int[reverse.maxDegree()];
+        this.backWeights = new int[reverse.maxDegree()];
+    }
+
+    /**
+     * Settles vertices from both s and the target until no unseen path can beat
+     * the best one found.  The backward half of that path is then copied into the
+     * forward parents so the whole path can be read back from the target.
+     */
+    protected boolean search(int s, int target) {
+        IntGraphIfc reverse = reverse();
+        if (this.backNeighbors.length < reverse.maxDegree()) {
+            this.backNeighbors = new int[reverse.maxDegree()];
+            this.backWeights = new int[reverse.maxDegree()];
+        }
+        SearchScratch forward = this.scratch;
+        SearchScratch backward = this.backward;
+        forward.reset();
+        backward.reset();
+        IntPriorityQueueIfc fq = this.forwardQueue;
+        IntPriorityQueueIfc bq = this.backwardQueue;
+        fq.clear();
+        bq.clear();
+
+        forward.reach(s, 0, -1);
+        this.listener.visit(s);
+        fq.push(0, s);
+        if (s == target) {
+            return true;
+        }
+        if (target != NO_TARGET) {
+            backward.reach(target, 0, -1);
+            this.listener.visit(target);
+            bq.push(0, target);
+        }
+
+        long best = Long.MAX_VALUE;
+        int meetFrom = -1, meetTo = -1, meetWeight = 0;
+
+        while (!fq.isEmpty() && (target == NO_TARGET || !bq.isEmpty())) {
+            if (target != NO_TARGET && (long)fq.topPriority() + bq.topPriority() >= best) {
+                break;
+            }
+
+            if (target == NO_TARGET || fq.topPriority() <= bq.topPriority()) {
+                int u = fq.topElement();
+                int du = fq.topPriority();
+                fq.pop();
+                this.expanded++;
+
+                int count = this.graph.neighbors(u, this.neighbors, this.weights);
+                for (int k = 0; k < count; k++) {
+                    int v = this.neighbors[k];
+                    int alt = du + this.weights[k];
+                    if (!forward.isReached(v)) {
+                        this.listener.visit(v);
+                        forward.reach(v, alt, u);
+                        fq.push(alt, v);
+                    } else if (alt < forward.distance(v)) {
+                        forward.reach(v, alt, u);
+                        fq.changePriority(v, alt);
+                    }
+                    if (backward.isReached(v) && (long)alt + backward.distance(v) < best) {
+                        best = (long)alt + backward.distance(v);
+                        meetFrom = u;
+                        meetTo = v;
+                        meetWeight = this.weights[k];
+                    }
+                }
+            } else {
+                int u = bq.topElement();
+                int du = bq.topPriority();
+                bq.pop();
+                this.expanded++;
+
+                int count = reverse.neighbors(u, this.backNeighbors, this.backWeights);
+                for (int k = 0; k < count; k++) {
+                    int v = this.backNeighbors[k];
+                    int alt = du + this.backWeights[k];
+                    if (!backward.isReached(v)) {
+                        this.listener.visit(v);
+                        backward.reach(v, alt, u);
+                        bq.push(alt, v);
+                    } else if (alt < backward.distance(v)) {
+                        backward.reach(v, alt, u);
+                        bq.changePriority(v, alt);
+                    }
+                    if (forward.isReached(v) && (long)forward.distance(v) + alt < best) {
+                        best = (long)forward.distance(v) + alt;
+                        meetFrom = v;
+                        meetTo = u;
+                        meetWeight = this.backWeights[k];
+                    }
+                }
+            }
+        }
+
+        if (best == Long.MAX_VALUE) {
+            return false;
+        }
+        join(meetFrom, meetTo, meetWeight, target);
+        return true;
+    }
+
+    /**
+     * Returns the length of a shortest path from the last start vertex to v.
+     * After a point to point query only the vertices on the path and those reached
+     * by the forward search have a distance.
+     *
+     * @param v A vertex id.
+     * @return The distance to v, or SearchScratch.INFINITY if v was not reached.
+     */
+    public int distance(int v) {
+        return this.scratch.distance(v);
+    }
+
+    /**
+     * Links the edge (u, v) where the searches met and the backward path from v
+     * to the target into the forward parents. The backward distance of v may have
+     * dropped since the searches met there, so each step is costed on its own.
+     */
+    private void join(int u, int v, int weight, int target) {
+        SearchScratch forward = this.scratch;
+        SearchScratch backward = this.backward;
+        forward.reach(v, forward.distance(u) + weight, u);
+        while (v != target) {
+            int next = backward.parent(v);
+            forward.reach(next, forward.distance(v) + backward.distance(v) - backward.distance(next), v);
+            v = next;
+        }
+    }
+}
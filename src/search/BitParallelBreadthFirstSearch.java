@@ -0,0 +1,331 @@
+package search;
+
+import java.util.Arrays;
+
+import graph.GridGraph;
+import util.Board;
+
+/**
+ * A Breadth First Search over a four-connected grid that expands a whole level
+ * with bitwise operations on 64 squares at a time.  The active squares, the
+ * visited squares and the frontier are kept as bitsets with each row padded out
+ * to whole longs, so the squares above and below a word are the same word of
+ * the rows above and below, and the squares beside it are the word shifted by
+ * one bit.  Each level computes
+ * <code>next = (f &lt;&lt; 1 | f &gt;&gt;&gt; 1 | up | down) &amp; active &amp; ~visited</code>
+ * for every word next to the frontier.
+ * <br><br>
+ * Only the words beside a frontier word are computed, so a level costs a few
+ * words per frontier word rather than the whole board, and a winding corridor
+ * stays cheap.  The gain is largest where the frontier is dense along the rows;
+ * a diagonal wavefront crosses a row in only a square or two.  The parent of a
+ * square is a neighbor found in the previous frontier, so distances are exactly
+ * those of {@link BreadthFirstSearch}; a square may get a different parent of
+ * the same depth.  Terrain costs are ignored, as they are by every breadth
+ * first search.
+ *
+ * @author Tyler Weir
+ */
+public class BitParallelBreadthFirstSearch extends GraphSearch {
+    private final GridGraph grid;
+    private final int width;
+    private final int height;
+    // The number of longs in a padded row
+    private final int rowWords;
+    private final long[] active;
+    private final long[] visited;
+    private long[] frontier;
+    private long[] next;
+    // The indices of the non-zero words of the frontier and the next frontier
+    private int[] frontierWords;
+    private int[] nextWords;
+    private final int[] candidates;
+    // The level at which a word was last queued to be computed
+    private final int[] wordStamps;
+    // The board version the active bits were copied at, or -1
+    private int activeVersion = -1;
+
+    /**
+     * Constructs a bit parallel breadth first search over a grid.
+     *
+     * @param grid The four-connected grid the search will explore.
+     * @param listener The listener told about every visited vertex.
+     */
+    public BitParallelBreadthFirstSearch(GridGraph grid, VisitListener listener) {
+        super(grid, listener);
+        if (grid.isDiagonal()) {
+            throw new IllegalStateException("The bit parallel search needs a four-connected grid.");
+        }
+        this.grid = grid;
+        this.width = grid.width();
+        this.height = grid.height();
+        this.rowWords = (this.width + 63) >>> 6;
+        int words = this.height * this.rowWords;
+        this.active = new long[words];
+        this.visited = new long[words];
+        this.frontier = new long[words];
+        this.next = new long[words];
+        this.frontierWords = new int[words];
+        this.nextWords = new int[words];
+        this.candidates = new int[words];
+        this.wordStamps = new int[words];
+    }
+
+    /**
+     * Expands s one level at a time until the target's level is done or nothing
+     * is left to reach.
+     */
+    protected boolean search(int s, int target) {
+        begin();
+        int numWords = seed(s, 0);
+        return s == target || flood(numWords, 1, target);
+    }
+
+    /**
+     * Returns the number of edges on a shortest path from the last start vertex to v.
+     *
+     * @param v A vertex id.
+     * @return The distance to v, or -1 if v was not reached.
+     */
+    public int distance(int v) {
+        return this.scratch.isReached(v) ? this.scratch.distance(v) : -1;
+    }
+
+    /**
+     * Computes the breadth first layer of every square from a set of sources,
+     * that is the distance from each square to the nearest source. The frontier
+     * of a row of sources fills whole words, which is where the search gains
+     * most over one square at a time.
+     *
+     * @param sources The squares the layers are counted from.
+     * @return The layer of each square, indexed like the board, with -1 for the
+     * squares that cannot be reached.
+     * @throws IllegalStateException if a source is not an active square.
+     */
+    public int[] distanceField(int... sources) {
+        for (int s : sources) {
+            checkVertex(s);
+        }
+        startRun();
+        begin();
+        int numWords = 0, size = 0;
+        for (int s : sources) {
+            if (!this.scratch.isReached(s)) {
+                numWords = seed(s, numWords);
+                size++;
+            }
+        }
+        flood(numWords, size, NO_TARGET);
+
+        int[] field = new int[this.graph.numIds()];
+        for (int v = 0; v < field.length; v++) {
+            field[v] = distance(v);
+        }
+        return field;
+    }
+
+    /*********************************************************
+     * 				Private helper methods
+     *********************************************************/
+
+    /**
+     * Clears the state of the last run.
+     */
+    private void begin() {
+        this.scratch.reset();
+        copyActive();
+        Arrays.fill(this.visited, 0L);
+        Arrays.fill(this.frontier, 0L);
+        Arrays.fill(this.next, 0L);
+        Arrays.fill(this.wordStamps, -1);
+    }
+
+    /**
+     * Puts a source in the frontier at depth 0. Returns the new number of
+     * frontier words.
+     */
+    private int seed(int s, int numWords) {
+        int r = s / this.width;
+        int c = s % this.width;
+        int w = r * this.rowWords + (c >>> 6);
+        this.scratch.reach(s, 0, -1);
+        set(this.visited, r, c);
+        if (this.frontier[w] == 0L) {
+            this.frontierWords[numWords++] = w;
+        }
+        set(this.frontier, r, c);
+        this.listener.visit(s);
+        return numWords;
+    }
+
+    /**
+     * Expands the frontier one level at a time until the target's level is done
+     * or nothing is left to reach. Returns true if the target was reached.
+     */
+    private boolean flood(int numWords, int size, int target) {
+        boolean found = false;
+        for (int depth = 0; numWords > 0 && !found; depth++) {
+            this.expanded += size;
+
+            // Queue every word beside a frontier word, once
+            int numCandidates = 0;
+            for (int k = 0; k < numWords; k++) {
+                int w = this.frontierWords[k];
+                long f = this.frontier[w];
+                int col = w % this.rowWords;
+                numCandidates = queue(w, depth, numCandidates);
+                // Only the end bits of a word carry into the words beside it
+                if (col > 0 && (f & 1L) != 0L) {
+                    numCandidates = queue(w - 1, depth, numCandidates);
+                }
+                if (col < this.rowWords - 1 && f < 0L) {
+                    numCandidates = queue(w + 1, depth, numCandidates);
+                }
+                if (w >= this.rowWords) {
+                    numCandidates = queue(w - this.rowWords, depth, numCandidates);
+                }
+                if (w + this.rowWords < this.visited.length) {
+                    numCandidates = queue(w + this.rowWords, depth, numCandidates);
+                }
+            }
+
+            int numNext = 0;
+            size = 0;
+            for (int k = 0; k < numCandidates; k++) {
+                int w = this.candidates[k];
+                int count = expandWord(w, depth + 1);
+                if (count > 0) {
+                    size += count;
+                    this.nextWords[numNext++] = w;
+                }
+            }
+            found = target != NO_TARGET && isSet(this.visited, target / this.width, target % this.width);
+
+            // The old frontier becomes the empty buffer of the next level
+            clearWords(this.frontier, this.frontierWords, numWords);
+            long[] t = this.frontier;
+            this.frontier = this.next;
+            this.next = t;
+            int[] words = this.frontierWords;
+            this.frontierWords = this.nextWords;
+            this.nextWords = words;
+            numWords = numNext;
+        }
+        return found;
+    }
+
+    /**
+     * Adds a word to the candidates of the level unless it is already there.
+     * Returns the new number of candidates.
+     */
+    private int queue(int w, int depth, int numCandidates) {
+        if (this.wordStamps[w] != depth) {
+            this.wordStamps[w] = depth;
+            this.candidates[numCandidates++] = w;
+        }
+        return numCandidates;
+    }
+
+    /**
+     * Finds the unvisited active squares of a word beside the frontier and marks
+     * them visited at the given depth. Returns the number found.
+     */
+    private int expandWord(int w, int depth) {
+        int row = w / this.rowWords;
+        int k = w - row * this.rowWords;
+        long[] f = this.frontier;
+
+        long word = f[w];
+        long reach = word << 1 | word >>> 1;
+        if (k > 0) {
+            reach |= f[w - 1] >>> 63;
+        }
+        if (k < this.rowWords - 1) {
+            reach |= f[w + 1] << 63;
+        }
+        if (row > 0) {
+            reach |= f[w - this.rowWords];
+        }
+        if (row < this.height - 1) {
+            reach |= f[w + this.rowWords];
+        }
+
+        long found = reach & this.active[w] & ~this.visited[w];
+        if (found == 0L) {
+            return 0;
+        }
+        this.visited[w] |= found;
+        this.next[w] = found;
+
+        for (long bits = found; bits != 0L; bits &= bits - 1) {
+            int col = (k << 6) + Long.numberOfTrailingZeros(bits);
+            int v = row * this.width + col;
+            this.scratch.reach(v, depth, parent(row, col));
+            this.listener.visit(v);
+        }
+        return Long.bitCount(found);
+    }
+
+    /**
+     * Returns a neighbor of square (row, col) in the frontier.
+     */
+    private int parent(int row, int col) {
+        if (col > 0 && isSet(this.frontier, row, col - 1)) {
+            return row * this.width + col - 1;
+        }
+        if (col < this.width - 1 && isSet(this.frontier, row, col + 1)) {
+            return row * this.width + col + 1;
+        }
+        if (row > 0 && isSet(this.frontier, row - 1, col)) {
+            return (row - 1) * this.width + col;
+        }
+        return (row + 1) * this.width + col;
+    }
+
+    /**
+     * Copies the active bits of the board into padded rows, unless the board has
+     * not changed since the last copy.
+     */
+    private void copyActive() {
+        Board board = this.grid.board();
+        if (board.version() == this.activeVersion) {
+            return;
+        }
+        long[] bits = board.activeBits();
+        int tail = this.width & 63;
+        for (int row = 0; row < this.height; row++) {
+            long start = (long)row * this.width;
+            for (int k = 0; k < this.rowWords; k++) {
+                long from = start + ((long)k << 6);
+                int word = (int)(from >>> 6);
+                int shift = (int)(from & 63);
+                long value = bits[word] >>> shift;
+                if (shift != 0 && word + 1 < bits.length) {
+                    value |= bits[word + 1] << (64 - shift);
+                }
+                if (k == this.rowWords - 1 && tail != 0) {
+                    value &= (1L << tail) - 1;
+                }
+                this.active[row * this.rowWords + k] = value;
+            }
+        }
+        this.activeVersion = board.version();
+    }
+
+    /**
+     * Zeroes the given words of a bitset.
+     */
+    private static void clearWords(long[] bits, int[] words, int count) {
+        for (int k = 0; k < count; k++) {
+            bits[words[k]] = 0L;
+        }
+    }
+
+    private void set(long[] bits, int row, int col) {
+        bits[row * this.rowWords + (col >>> 6)] |= 1L << col;
+    }
+
+    private boolean isSet(long[] bits, int row, int col) {
+        return (bits[row * this.rowWords + (col >>> 6)] & (1L << col)) != 0L;
+    }
+}
@@ -0,0 +1,91 @@
+package search;
+
+import graph.IntEdgeConsumer;
+import graph.IntGraphIfc;
+
+/**
+ * An implementation of the Breadth First Search graph traversal algorithm over
+ * int vertex ids.  The queue is a plain int array since every vertex is 
+ * enqueued at most once.  The edges of a vertex are read in place through
+ * <code>scanEdges()</code>, so expanding a vertex copies and allocates nothing.
+ * 
+ * @author Tyler Weir
+ */
+public class BreadthFirstSearch extends GraphSearch {
+    private final int[] queue;
+    private int tail;
+    private final Expansion expansion = new Expansion();
+
+    /**
+     * Constructs a breadth first search over the given graph.
+     * 
+     * @param graph The graph the search will explore.
+     * @param listener The listener told about every visited vertex.
+     */
+    public BreadthFirstSearch(IntGraphIfc graph, VisitListener listener) {
+        super(graph, listener);
+        this.queue = new int[graph.numIds()];
+    }
+
+    /**
+     * Visits vertices reachable from s in breadth first order. The distance of a
+     * vertex is final as soon as it is discovered, so the search stops there.
+     */
+    protected boolean search(int s, int target) {
+        SearchScratch scratch = this.scratch;
+        scratch.reset();
+
+        int head = 0;
+        this.tail = 0;
+        scratch.reach(s, 0, -1);
+        this.queue[this.tail++] = s;
+        this.listener.visit(s);
+        if (s == target) {
+            return true;
+        }
+
+        Expansion expansion = this.expansion;
+        expansion.target = target;
+        while (head < this.tail) {
+            int u = this.queue[head++];
+            this.expanded++;
+
+            expansion.u = u;
+            expansion.depth = scratch.distance(u) + 1;
+            if (!this.graph.scanEdges(u, expansion)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the number of edges on a shortest path from the last start vertex to v.
+     * 
+     * @param v A vertex id.
+     * @return The distance to v, or -1 if v was not reached.
+     */
+    public int distance(int v) {
+        return this.scratch.isReached(v) ? this.scratch.distance(v) : -1;
+    }
+
+    /**
+     * Reaches and queues the unreached neighbors of the vertex being expanded,
+     * and stops the scan once the target is reached.
+     */
+    private class Expansion implements IntEdgeConsumer {
+        int u;
+        int depth;
+        int target;
+
+        public boolean accept(int v, int weight) {
+            if (scratch.isReached(v)) {
+                return true;
+            }
+            scratch.reach(v, this.depth, this.u);
+            queue[tail++] = v;
+            listener.visit(v);
+            return v != this.target;
+        }
+    }
+}
@@ -0,0 +1,311 @@
+package search;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import graph.IntGraphIfc;
+
+/**
+ * Meyer and Sanders' delta-stepping single source shortest paths, with the
+ * relaxations of each phase spread over a {@link ForkJoinPool}.  Vertices are
+ * kept in buckets of tentative distances delta wide.  The lowest bucket is
+ * emptied by relaxing the light edges, those no heavier than delta, of all its
+ * vertices at once, repeating while that refills the bucket; then the heavy
+ * edges of every vertex settled in the bucket are relaxed once.  Only the
+ * pending buckets within the largest edge weight of the current one can hold
+ * vertices, so the buckets are reused circularly.
+ * <br><br>
+ * The tentative distance and parent of each vertex are packed into one long of
+ * an {@link AtomicLongArray}, distance in the high half, and improved with a
+ * compare and set, so the parent always belongs to the distance beside it.  The
+ * distances are exactly those of {@link DijkstraSearch}; a vertex may get a
+ * different parent on a path of the same length.  Vertices are settled one
+ * bucket at a time and the listener is told about them on the calling thread.
+ * The graph is read from several threads at once, so it must not change during
+ * a run.  Unlike the sequential searches, a run starts by resetting O(V) state.
+ *
+ * @author Tyler Weir
+ */
+public class DeltaSteppingSearch extends GraphSearch {
+    private static final long UNREACHED = pack(SearchScratch.INFINITY, -1);
+    // The fewest vertices whose edges are relaxed in one fork join task
+    private static final int GRAIN = 512;
+
+    private final ForkJoinPool pool;
+    private final int delta;
+    private final AtomicLongArray tentative;
+    // The bucket each vertex is queued in, or -1
+    private final int[] queuedIn;
+    private final int[][] buckets;
+    private final int[] bucketSizes;
+    private final AtomicInteger numImproved;
+    private int[] improved;
+    private int[] work;
+    private int[] settled;
+
+    /**
+     * Constructs a delta-stepping search that runs on the common pool, with delta
+     * chosen from the largest edge weight.
+     *
+     * @param graph The graph the search will explore.
+     * @param listener The listener told about every visited vertex.
+     */
+    public DeltaSteppingSearch(IntGraphIfc graph, VisitListener listener) {
+        this(graph, defaultDelta(graph), ForkJoinPool.commonPool(), listener);
+    }
+
+    /**
+     * Constructs a delta-stepping search.
+     *
+     * @param graph The graph the search will explore.
+     * @param delta The width of a bucket, at least 1.
+     * @param pool The pool the relaxations run on.
+     * @param listener The listener told about every visited vertex.
+     */
+    public DeltaSteppingSearch(IntGraphIfc graph, int delta, ForkJoinPool pool, VisitListener listener) {
+        super(graph, listener);
+        if (delta < 1) {
+            throw new IllegalStateException("The bucket width must be at least 1.");
+        }
+        this.pool = pool;
+        this.delta = delta;
+        this.tentative = new AtomicLongArray(graph.numIds());
+        this.queuedIn = new int[graph.numIds()];
+        this.buckets = new int[Math.max(1, graph.maxEdgeWeight()) / delta + 2][];
+        // The buckets are reused in a cycle, so a heavier edge would wrap into a live one
+        limitWeight(Math.max(1, graph.maxEdgeWeight()));
+        this.bucketSizes = new int[this.buckets.length];
+        for (int b = 0; b < this.buckets.length; b++) {
+            this.buckets[b] = new int[16];
+        }
+        this.numImproved = new AtomicInteger();
+        this.improved = new int[16];
+        this.work = new int[16];
+        this.settled = new int[16];
+    }
+
+    /**
+     * Picks the bucket width for a graph. Wide buckets give each phase more
+     * vertices to relax in parallel, and half the largest edge weight still keeps
+     * the heaviest edges out of the repeated light phases.
+     *
+     * @param graph The graph the search will explore.
+     * @return The default bucket width.
+     */
+    public static int defaultDelta(IntGraphIfc graph) {
+        return Math.max(1, graph.maxEdgeWeight() / 2);
+    }
+
+    /**
+     * Returns the width of a bucket.
+     *
+     * @return The delta of the search.
+     */
+    public int delta() {
+        return this.delta;
+    }
+
+    /**
+     * Settles the vertices reachable from s one bucket at a time, stopping once the
+     * bucket that holds the target is settled.
+     */
+    protected boolean search(int s, int target) {
+        SearchScratch scratch = this.scratch;
+        scratch.reset();
+        for (int v = 0; v < this.graph.numIds(); v++) {
+            this.tentative.set(v, UNREACHED);
+        }
+        Arrays.fill(this.queuedIn, -1);
+        Arrays.fill(this.bucketSizes, 0);
+
+        this.tentative.set(s, pack(0, -1));
+        int pending = enqueue(s, 0);
+        boolean found = false;
+        for (int current = 0; pending > 0; current++) {
+            int slot = current % this.buckets.length;
+            int numSettled = 0;
+
+            // Relax light edges until the bucket stays empty
+            while (this.bucketSizes[slot] > 0) {
+                int size = this.bucketSizes[slot];
+                int[] taken = this.buckets[slot];
+                this.buckets[slot] = this.work;
+                this.work = taken;
+                this.bucketSizes[slot] = 0;
+                pending -= size;
+
+                int live = 0;
+                for (int k = 0; k < size; k++) {
+                    int v = taken[k];
+                    if (this.queuedIn[v] != current) {
+                        continue;
+                    }
+                    this.queuedIn[v] = -1;
+                    taken[live++] = v;
+                    if (!scratch.isReached(v)) {
+                        scratch.reach(v, 0, -1);
+                        this.settled = grow(this.settled, numSettled + 1);
+                        this.settled[numSettled++] = v;
+                    }
+                }
+                pending += relax(taken, live, true);
+            }
+
+            // Heavy edges lead to later buckets, so relaxing them once is enough
+            pending += relax(this.settled, numSettled, false);
+
+            for (int k = 0; k < numSettled; k++) {
+                int v = this.settled[k];
+                long t = this.tentative.get(v);
+                scratch.reach(v, distanceOf(t), parentOf(t));
+                this.listener.visit(v);
+                found |= v == target;
+            }
+            this.expanded += numSettled;
+            if (found) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the length of a shortest path from the last start vertex to v.
+     *
+     * @param v A vertex id.
+     * @return The distance to v, or INFINITY if v was not reached.
+     */
+    public int distance(int v) {
+        return this.scratch.distance(v);
+    }
+
+    /*********************************************************
+     * 				Private helper methods
+     *********************************************************/
+
+    /**
+     * Relaxes the light or heavy edges of the first count vertices of an array and
+     * queues every vertex whose distance improved. Returns the number of queue
+     * entries added.
+     */
+    private int relax(int[] vertices, int count, boolean light) {
+        if (count == 0) {
+            return 0;
+        }
+        this.improved = grow(this.improved, count * this.graph.maxDegree());
+        this.numImproved.set(0);
+        Relax task = new Relax(vertices, 0, count, light);
+        if (count <= GRAIN) {
+            task.compute();
+        } else {
+            this.pool.invoke(task);
+        }
+
+        int added = 0;
+        int n = this.numImproved.get();
+        for (int k = 0; k < n; k++) {
+            int v = this.improved[k];
+            added += enqueue(v, distanceOf(this.tentative.get(v)) / this.delta);
+        }
+        return added;
+    }
+
+    /**
+     * Relaxes the edges of a slice of an array of vertices.
+     */
+    private class Relax extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final int[] vertices;
+        private final int lo;
+        private final int hi;
+        private final boolean light;
+
+        Relax(int[] vertices, int lo, int hi, boolean light) {
+            this.vertices = vertices;
+            this.lo = lo;
+            this.hi = hi;
+            this.light = light;
+        }
+
+        protected void compute() {
+            if (this.hi - this.lo > GRAIN) {
+                int mid = (this.lo + this.hi) >>> 1;
+                invokeAll(new Relax(this.vertices, this.lo, mid, this.light),
+                    new Relax(this.vertices, mid, this.hi, this.light));
+                return;
+            }
+
+            int[] targets = new int[graph.maxDegree()];
+            int[] weights = new int[graph.maxDegree()];
+            int[] found = new int[(this.hi - this.lo) * graph.maxDegree()];
+            int count = 0;
+            for (int k = this.lo; k < this.hi; k++) {
+                int u = this.vertices[k];
+                int du = distanceOf(tentative.get(u));
+                int degree = graph.neighbors(u, targets, weights);
+                for (int e = 0; e < degree; e++) {
+                    if ((weights[e] <= delta) == this.light && lower(targets[e], du + weights[e], u)) {
+                        found[count++] = targets[e];
+                    }
+                }
+            }
+            System.arraycopy(found, 0, improved, numImproved.getAndAdd(count), count);
+        }
+    }
+
+    /**
+     * Lowers the tentative distance of v to d through u, returning true if it was
+     * higher.
+     */
+    private boolean lower(int v, int d, int u) {
+        long packed = pack(d, u);
+        long old = this.tentative.get(v);
+        while (distanceOf(old) > d) {
+            if (this.tentative.compareAndSet(v, old, packed)) {
+                return true;
+            }
+            old = this.tentative.get(v);
+        }
+        return false;
+    }
+
+    /**
+     * Puts v in the given bucket unless it is already there. Returns the number of
+     * entries added.
+     */
+    private int enqueue(int v, int bucket) {
+        if (this.queuedIn[v] == bucket) {
+            return 0;
+        }
+        this.queuedIn[v] = bucket;
+        int slot = bucket % this.buckets.length;
+        this.buckets[slot] = grow(this.buckets[slot], this.bucketSizes[slot] + 1);
+        this.buckets[slot][this.bucketSizes[slot]++] = v;
+        return 1;
+    }
+
+    /**
+     * Returns an array of at least the given length holding the contents of a.
+     */
+    private static int[] grow(int[] a, int length) {
+        if (a.length >= length) {
+            return a;
+        }
+        return Arrays.copyOf(a, Math.max(length, 2 * a.length));
+    }
+
+    private static long pack(int distance, int parent) {
+        return ((long)distance << 32) | (parent & 0xFFFFFFFFL);
+    }
+
+    private static int distanceOf(long packed) {
+        return (int)(packed >>> 32);
+    }
+
+    private static int parentOf(long packed) {
+        return (int)packed;
+    }
+}
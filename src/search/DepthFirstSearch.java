@@ -0,0 +1,90 @@
+package search;
+
+import java.util.Arrays;
+
+import graph.IntEdgeConsumer;
+import graph.IntGraphIfc;
+
+/**
+ * An implementation of the Depth First Search graph traversal algorithm over 
+ * int vertex ids.  The stack holds pairs of a vertex and the vertex it was 
+ * pushed from, so the tree the search builds can be read back as a path.
+ * The edges of a vertex are read in place through <code>scanEdges()</code>.
+ * 
+ * @author Tyler Weir
+ */
+public class DepthFirstSearch extends GraphSearch {
+    private int[] stack;
+    private int top;
+    private final Expansion expansion = new Expansion();
+
+    /**
+     * Constructs a depth first search over the given graph.
+     * 
+     * @param graph The graph the search will explore.
+     * @param listener The listener told about every visited vertex.
+     */
+    public DepthFirstSearch(IntGraphIfc graph, VisitListener listener) {
+        super(graph, listener);
+        this.stack = new int[32];
+    }
+
+    /**
+     * Visits vertices reachable from s in depth first order.
+     */
+    protected boolean search(int s, int target) {
+        SearchScratch scratch = this.scratch;
+        scratch.reset();
+
+        this.top = 0;
+        this.stack[this.top++] = s;
+        this.stack[this.top++] = -1;
+
+        while (this.top > 0) {
+            int from = this.stack[--this.top];
+            int u = this.stack[--this.top];
+            if (!scratch.isReached(u)) {
+                scratch.reach(u, from < 0 ? 0 : scratch.distance(from) + 1, from);
+                this.listener.visit(u);
+                if (u == target) {
+                    return true;
+                }
+
+                this.expanded++;
+                // Make room for every neighbor before the scan pushes them
+                int room = this.top + 2 * this.graph.maxDegree();
+                if (room > this.stack.length) {
+                    this.stack = Arrays.copyOf(this.stack, 2 * room);
+                }
+                this.expansion.u = u;
+                this.graph.scanEdges(u, this.expansion);
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns true if the last run visited v.
+     * 
+     * @param v A vertex id.
+     * @return True if v was visited, false otherwise.
+     */
+    public boolean isVisited(int v) {
+        return this.scratch.isReached(v);
+    }
+
+    /**
+     * Pushes the unreached neighbors of the vertex being expanded.
+     */
+    private class Expansion implements IntEdgeConsumer {
+        int u;
+
+        public boolean accept(int v, int weight) {
+            if (!scratch.isReached(v)) {
+                stack[top++] = v;
+                stack[top++] = this.u;
+            }
+            return true;
+        }
+    }
+}
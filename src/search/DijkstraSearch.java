@@ -0,0 +1,165 @@
+package search;
+
+import graph.IntEdgeConsumer;
+import graph.IntGraphIfc;
+import util.IntBucketQueue;
+import util.IntIndexedMinHeap;
+import util.IntPriorityQueueIfc;
+
+/**
+ * An implementation of Dijkstra's Algorithm over int vertex ids, using the edge
+ * weights of the graph.  The queue is chosen when the search is constructed and
+ * is reused by every run, so the fastest queue for a given weight distribution
+ * can be picked.  Vertices enter the queue when they are first reached, and the
+ * distances and parents live in an epoch-stamped {@link SearchScratch}, so the
+ * cost of a run scales with the region it explores rather than the whole graph.
+ * The edges of a vertex are read in place through <code>scanEdges()</code>.
+ * <br><br>
+ * When no queue is given and the edge weights are small integers, the search 
+ * runs as Dial's algorithm on an {@link IntBucketQueue}, which takes 
+ * O(V + E + C) for a largest weight C instead of O(E log V).
+ * 
+ * @author Tyler Weir
+ */
+public class DijkstraSearch extends GraphSearch {
+    /** The distance of a vertex that has not been reached. */
+    public static final int INFINITY = SearchScratch.INFINITY;
+
+    /** The largest edge weight for which Dial's algorithm is chosen automatically. */
+    public static final int DIAL_MAX_WEIGHT = 1024;
+
+    private final IntPriorityQueueIfc Q;
+    private final Expansion expansion = new Expansion();
+
+    /**
+     * Constructs a Dijkstra search over the given graph. The search uses a bucket
+     * queue if the largest edge weight is at most DIAL_MAX_WEIGHT, and a binary
+     * heap otherwise.
+     * 
+     * @param graph The graph the search will explore.
+     * @param listener The listener told about every visited vertex.
+     */
+    public DijkstraSearch(IntGraphIfc graph, VisitListener listener) {
+        this(graph, listener, defaultQueue(graph));
+    }
+
+    /**
+     * Constructs a Dijkstra search over the given graph that uses the given queue.
+     * 
+     * @param graph The graph the search will explore.
+     * @param listener The listener told about every visited vertex.
+     * @param queue The priority queue, with room for every vertex id of the graph.
+     */
+    public DijkstraSearch(IntGraphIfc graph, VisitListener listener, IntPriorityQueueIfc queue) {
+        super(graph, listener);
+        if (queue.capacity() < graph.numIds()) {
+            throw new IllegalStateException("The priority queue cannot hold every vertex of the graph.");
+        }
+        this.Q = queue;
+        if (queue instanceof IntBucketQueue) {
+            limitWeight(((IntBucketQueue)queue).maxSpread());
+        }
+    }
+
+    /**
+     * Picks the queue for a search over the given graph.
+     * 
+     * @param graph The graph the search will explore.
+     * @return A bucket queue for small integer weights, otherwise a binary heap.
+     */
+    public static IntPriorityQueueIfc defaultQueue(IntGraphIfc graph) {
+        int maxWeight = graph.maxEdgeWeight();
+        if (maxWeight <= DIAL_MAX_WEIGHT) {
+            return new IntBucketQueue(graph.numIds(), maxWeight);
+        }
+        return new IntIndexedMinHeap(graph.numIds());
+    }
+
+    /**
+     * Returns the priority queue used by the search.
+     * 
+     * @return The queue of the search.
+     */
+    public IntPriorityQueueIfc queue() {
+        return this.Q;
+    }
+
+    /**
+     * Computes shortest distances from s, stopping once the target is popped from
+     * the queue. A vertex is visited when it is first reached.
+     */
+    protected boolean search(int s, int target) {
+        // A minimum priority queue, emptied of anything a previous run left behind
+        IntPriorityQueueIfc Q = this.Q;
+        Q.clear();
+
+        // Forget the previous run and set the source to zero
+        SearchScratch scratch = this.scratch;
+        scratch.reset();
+        scratch.reach(s, 0, -1);
+        this.listener.visit(s);
+
+        // Only the source starts in the queue. Bucket queues cannot hold the
+        // infinite distance of an unreached vertex.
+        Q.push(0, s);
+
+        while (!Q.isEmpty()) {
+            int u = Q.topElement();
+            int du = Q.topPriority();
+            Q.pop();
+            if (u == target) {
+                return true;
+            }
+
+            this.expanded++;
+
+            // Relax the edges of u
+            this.expansion.u = u;
+            this.expansion.du = du;
+            this.graph.scanEdges(u, this.expansion);
+        }
+        return false;
+    }
+
+    /**
+     * Returns the length of a shortest path from the last start vertex to v.
+     * 
+     * @param v A vertex id.
+     * @return The distance to v, or INFINITY if v was not reached.
+     */
+    public int distance(int v) {
+        return this.scratch.distance(v);
+    }
+
+    /**
+     * Returns the vertex before v on a shortest path from the last start vertex.
+     * 
+     * @param v A vertex id.
+     * @return The predecessor of v, or -1 if v is the start or was not reached.
+     */
+    public int previous(int v) {
+        return this.scratch.parent(v);
+    }
+
+    /**
+     * Relaxes each edge of the vertex being expanded, reaching or improving the
+     * vertex at its other end.
+     */
+    private class Expansion implements IntEdgeConsumer {
+        int u;
+        int du;
+
+        public boolean accept(int n, int weight) {
+            int alt = this.du + weight;
+            if (!scratch.isReached(n)) {
+                listener.visit(n);
+                scratch.reach(n, alt, this.u);
+                Q.push(alt, n);
+            } else if (alt < scratch.distance(n)) {
+                scratch.reach(n, alt, this.u);
+                Q.changePriority(n, alt);
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package search;
+
+import graph.IntGraphIfc;
+
+/**
+ * The base class of the graph searches.  A search explores an {@link IntGraphIfc}
+ * using int vertex ids only and reports each vertex it visits to a 
+ * {@link VisitListener}.  A search can either explore everything reachable from
+ * a start vertex, or answer a point to point query and stop as soon as the 
+ * target is settled.  The parents of the reached vertices are kept in a 
+ * {@link SearchScratch} so the path can be read back afterwards.  The search
+ * notes the graph's version when a run starts, so a caller can tell when the
+ * graph has changed under the result.
+ * <br><br>
+ * The buffers of a search are sized for the graph it was built over.  A graph
+ * that has since gained vertex ids, a vertex of higher degree or a heavier edge
+ * than the search can hold makes the next run throw, and a new search has to be
+ * built.
+ * 
+ * @author Tyler Weir
+ */
+public abstract class GraphSearch {
+    /** The target of a search that explores everything it can reach. */
+    protected static final int NO_TARGET = -1;
+
+    /** The path returned when the target cannot be reached. */
+    public static final int[] NO_PATH = new int[0];
+
+    protected final IntGraphIfc graph;
+    protected final VisitListener listener;
+    protected final int[] neighbors;
+    protected final SearchScratch scratch;
+    protected int expanded;
+    // The version of the graph when the last run started
+    private int version;
+    // The largest graph the buffers have room for
+    private final int maxIds;
+    private final int maxDegree;
+    private int maxWeight = Integer.MAX_VALUE;
+    // The reverse of the graph as it was at reverseVersion, or null until asked for
+    private IntGraphIfc reverse;
+    private int reverseVersion;
+
+    /**
+     * Constructs a search over the given graph.
+     * 
+     * @param graph The graph the search will explore.
+     * @param listener The listener told about every visited vertex.
+     */
+    protected GraphSearch(IntGraphIfc graph, VisitListener listener) {
+        this.graph = graph;
+        this.listener = listener;
+        this.neighbors = new int[graph.maxDegree()];
+        this.scratch = new SearchScratch(graph.numIds());
+        this.maxIds = graph.numIds();
+        this.maxDegree = graph.maxDegree();
+    }
+
+    /**
+     * Explores the graph starting at the given vertex.
+     * 
+     * @param s The vertex from which the search will start exploring.
+     * @throws IllegalArgumentException if s does not occur in the graph.
+     */
+    public void run(int s) {
+        checkVertex(s);
+        startRun();
+        search(s, NO_TARGET);
+    }
+
+    /**
+     * Searches for a path from s to t, stopping as soon as t is settled.
+     * 
+     * @param s The vertex the path starts at.
+     * @param t The vertex the path ends at.
+     * @return The vertices of the path from s to t inclusive, or NO_PATH if t 
+     * cannot be reached.
+     * @throws IllegalArgumentException if either vertex does not occur in the graph.
+     */
+    public int[] findPath(int s, int t) {
+        checkVertex(s);
+        checkVertex(t);
+        startRun();
+        if (!search(s, t)) {
+            return NO_PATH;
+        }
+        return pathTo(t);
+    }
+
+    /**
+     * Returns the number of vertices the last run expanded, that is the number
+     * whose neighbors it scanned.
+     * 
+     * @return The number of expanded vertices.
+     */
+    public int expandedCount() {
+        return this.expanded;
+    }
+
+    /**
+     * Returns true if the graph has changed since the last run started, so the
+     * distances and paths of the run may no longer hold. A search running on one
+     * thread while another edits the graph can also check this to give up early.
+     * 
+     * @return True if the result of the last run is stale, false otherwise.
+     */
+    public boolean isStale() {
+        return this.graph.version() != this.version;
+    }
+
+    /**
+     * Returns true if the last run reached v. The state belongs to this search
+     * alone, so searches over the same graph never see each other's runs.
+     * 
+     * @param v A vertex id.
+     * @return True if v was reached, false otherwise.
+     */
+    public boolean isReached(int v) {
+        return this.scratch.isReached(v);
+    }
+
+    /**
+     * Returns the path the last run found from its start vertex to v.
+     * 
+     * @param v A vertex id.
+     * @return The vertices of the path, or NO_PATH if v was not reached.
+     */
+    public int[] pathTo(int v) {
+        if (!this.scratch.isReached(v)) {
+            return NO_PATH;
+        }
+
+        int length = 0;
+        for (int u = v; u >= 0; u = this.scratch.parent(u)) {
+            length++;
+        }
+        int[] path = new int[length];
+        for (int u = v; u >= 0; u = this.scratch.parent(u)) {
+            path[--length] = u;
+        }
+        return path;
+    }
+
+    /**
+     * Runs the search from s. The search stops once the target is settled, or
+     * explores everything reachable if the target is NO_TARGET.
+     * 
+     * @param s A vertex of the graph.
+     * @param target The vertex to stop at, or NO_TARGET.
+     * @return True if the target was settled, false otherwise.
+     */
+    protected abstract boolean search(int s, int target);
+
+    /**
+     * Resets the expanded count and notes the graph's version. Every public entry
+     * point calls it before searching.
+     * 
+     * @throws IllegalStateException if the graph has outgrown the buffers of the search.
+     */
+    protected void startRun() {
+        if (this.graph.numIds() > this.maxIds || this.graph.maxDegree() > this.maxDegree
+                || (this.maxWeight != Integer.MAX_VALUE && this.graph.maxEdgeWeight() > this.maxWeight)) {
+            throw new IllegalStateException("The graph has grown since the search was built; build a new search.");
+        }
+        this.expanded = 0;
+        this.version = this.graph.version();
+    }
+
+    /**
+     * Returns the reverse of the graph, building it again whenever the graph has
+     * changed since it was last built. The reverse of a {@link graph.Graph} is a
+     * snapshot that does not follow later edits, so a search that kept one would
+     * go on following edges that are gone.
+     * 
+     * @return The graph with every edge turned around.
+     */
+    protected IntGraphIfc reverse() {
+        int version = this.graph.version();
+        if (this.reverse == null || version != this.reverseVersion) {
+            this.reverse = this.graph.reverse();
+            this.reverseVersion = version;
+        }
+        return this.reverse;
+    }
+
+    /**
+     * Limits the edge weights the search accepts, for a subclass whose buffers
+     * are sized by the largest weight.
+     * 
+     * @param maxWeight The heaviest edge the search can handle.
+     */
+    protected void limitWeight(int maxWeight) {
+        this.maxWeight = maxWeight;
+    }
+
+    /**
+     * Throws an exception if v is not a vertex of the graph.
+     */
+    protected void checkVertex(int v) {
+        if (!this.graph.isVertex(v)) {
+            throw new IllegalStateException("The vertex " + v + " does not occur in the graph.");
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package search;
+
+import graph.GridGraph;
+
+/**
+ * An estimate of the cost of the cheapest path between two vertices, used to
+ * guide {@link AStarSearch}.  The grid heuristics work on the row and column 
+ * each cell index encodes and are scaled by the step costs of the grid.  All of
+ * them are admissible and consistent on the grids they are meant for, so A* 
+ * still finds shortest paths.
+ * 
+ * @author Tyler Weir
+ */
+public interface Heuristic {
+
+    /**
+     * The heuristic that always estimates zero. A* with it behaves like Dijkstra.
+     */
+    public static final Heuristic ZERO = (v, target) -> 0;
+
+    /**
+     * Estimates the cost of the cheapest path from v to the target.
+     * 
+     * @param v A vertex id.
+     * @param target The id of the target vertex.
+     * @return A lower bound on the cost of a path from v to the target.
+     */
+    public int estimate(int v, int target);
+
+    /**
+     * The Manhattan distance, the cost of moving straight along rows and columns.
+     * It is exact on an open four-connected grid but overestimates on an 
+     * eight-connected one.
+     * 
+     * @param grid The grid the heuristic measures.
+     * @return The Manhattan heuristic for the grid.
+     */
+    public static Heuristic manhattan(GridGraph grid) {
+        int width = grid.width();
+        int straight = grid.straightCost();
+        return (v, target) -> {
+            int di = Math.abs(v / width - target / width);
+            int dj = Math.abs(v % width - target % width);
+            return straight * (di + dj);
+        };
+    }
+
+    /**
+     * The octile distance, the cost of moving diagonally as far as possible and 
+     * then straight.  It is exact on an open eight-connected grid and equals the
+     * Manhattan distance on a four-connected one.
+     * 
+     * @param grid The grid the heuristic measures.
+     * @return The octile heuristic for the grid.
+     */
+    public static Heuristic octile(GridGraph grid) {
+        int width = grid.width();
+        int straight = grid.straightCost();
+        int diagonal = grid.diagonalCost();
+        return (v, target) -> {
+            int di = Math.abs(v / width - target / width);
+            int dj = Math.abs(v % width - target % width);
+            return straight * Math.max(di, dj) + (diagonal - straight) * Math.min(di, dj);
+        };
+    }
+
+    /**
+     * The straight line distance between the two cells.  It is scaled down to the
+     * integer diagonal cost of the grid so that it never overestimates, and is 
+     * rounded down, which keeps it consistent for integer step costs.
+     * 
+     * @param grid The grid the heuristic measures.
+     * @return The Euclidean heuristic for the grid.
+     */
+    public static Heuristic euclidean(GridGraph grid) {
+        int width = grid.width();
+        double scale = Math.min(grid.straightCost(), grid.diagonalCost() / Math.sqrt(2));
+        return (v, target) -> {
+            int di = v / width - target / width;
+            int dj = v % width - target % width;
+            return (int)(scale * Math.sqrt((double)di * di + (double)dj * dj));
+        };
+    }
+}
@@ -0,0 +1,338 @@
+package search;
+
+import graph.GridGraph;
+import util.IntIndexedMinHeap;
+
+/**
+ * An implementation of Jump Point Search on an eight-connected uniform cost grid,
+ * one where every cell has terrain cost 1.
+ * JPS is A* with the octile heuristic that only puts jump points in the queue.
+ * From each expanded cell it scans straight and diagonal lines, skipping every
+ * cell that some other shortest path would reach just as cheaply, and stops at
+ * the cells where a blocked neighbor forces a turn.  Diagonal steps never cut
+ * the corner of a blocked cell, the same rule {@link GridGraph} uses.
+ * <br><br>
+ * Given a {@link JumpPointTable} the search runs as JPS+, reading each jump from
+ * the table instead of scanning for it.  The listener is told about jump points
+ * only, and <code>expandedCount()</code> counts expanded jump points.  Paths are
+ * returned cell by cell like those of the other searches.
+ *
+ * @author Tyler Weir
+ */
+public class JumpPointSearch extends GraphSearch {
+    private final GridGraph grid;
+    private final JumpPointTable table;
+    private final Heuristic heuristic;
+    private final IntIndexedMinHeap Q;
+
+    /**
+     * Constructs a JPS search that scans the grid for jump points.
+     *
+     * @param grid The eight-connected grid the search will explore.
+     * @param listener The listener told about every jump point.
+     */
+    public JumpPointSearch(GridGraph grid, VisitListener listener) {
+        this(grid, null, listener);
+    }
+
+    /**
+     * Constructs a JPS+ search that reads its jumps from a table. The table is
+     * rebuilt at the start of a run if the grid changed since it was built.
+     *
+     * @param grid The eight-connected grid the search will explore.
+     * @param table The jump table of the grid, or null to scan instead.
+     * @param listener The listener told about every jump point.
+     */
+    public JumpPointSearch(GridGraph grid, JumpPointTable table, VisitListener listener) {
+        super(grid, listener);
+        if (!grid.isDiagonal()) {
+            throw new IllegalStateException("Jump points need an eight-connected grid.");
+        }
+        if (table != null && table.grid() != grid) {
+            throw new IllegalStateException("The jump table belongs to another grid.");
+        }
+        this.grid = grid;
+        this.table = table;
+        this.heuristic = Heuristic.octile(grid);
+        this.Q = new IntIndexedMinHeap(grid.numIds());
+    }
+
+    /**
+     * Searches from s over jump points, stopping once the target is popped.
+     */
+    protected boolean search(int s, int target) {
+        if (!this.grid.isUniform()) {
+            throw new IllegalStateException("Jump points need a grid where every cell costs the same.");
+        }
+        if (this.table != null) {
+            this.table.refresh();
+        }
+        Heuristic heuristic = target == NO_TARGET ? Heuristic.ZERO : this.heuristic;
+
+        IntIndexedMinHeap Q = this.Q;
+        Q.clear();
+        SearchScratch scratch = this.scratch;
+        scratch.reset();
+
+        scratch.reach(s, 0, -1);
+        this.listener.visit(s);
+        Q.push(heuristic.estimate(s, target), s);
+
+        while (!Q.isEmpty()) {
+            int u = Q.topElement();
+            Q.pop();
+            if (u == target) {
+                return true;
+            }
+            this.expanded++;
+
+            int gu = scratch.distance(u);
+            int count = successors(u, scratch.parent(u), this.neighbors);
+            for (int k = 0; k < count; k++) {
+                int n = this.neighbors[k];
+                int di = this.grid.row(n) - this.grid.row(u);
+                int dj = this.grid.col(n) - this.grid.col(u);
+                int jp = this.table == null ? scan(n, di, dj, target) : lookUp(u, di, dj, target);
+                if (jp < 0) {
+                    continue;
+                }
+
+                int alt = gu + cost(u, jp);
+                if (!scratch.isReached(jp)) {
+                    scratch.reach(jp, alt, u);
+                    this.listener.visit(jp);
+                    Q.push(alt + heuristic.estimate(jp, target), jp);
+                } else if (alt < scratch.distance(jp)) {
+                    int f = alt + heuristic.estimate(jp, target);
+                    scratch.reach(jp, alt, u);
+                    if (Q.contains(jp)) {
+                        Q.changePriority(jp, f);
+                    } else {
+                        Q.push(f, jp);
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the path the last run found from its start to v, including the
+     * cells between consecutive jump points.
+     *
+     * @param v A vertex id.
+     * @return The cells of the path, or NO_PATH if v was not reached.
+     */
+    public int[] pathTo(int v) {
+        int[] jumps = super.pathTo(v);
+        if (jumps.length < 2) {
+            return jumps;
+        }
+
+        int length = 1;
+        for (int k = 1; k < jumps.length; k++) {
+            length += steps(jumps[k - 1], jumps[k]);
+        }
+        int[] path = new int[length];
+        path[0] = jumps[0];
+        int p = 1;
+        for (int k = 1; k < jumps.length; k++) {
+            int u = jumps[k - 1];
+            int n = steps(u, jumps[k]);
+            int step = Integer.signum(this.grid.row(jumps[k]) - this.grid.row(u)) * this.grid.width()
+                    + Integer.signum(this.grid.col(jumps[k]) - this.grid.col(u));
+            for (int s = 1; s <= n; s++) {
+                path[p++] = u + s * step;
+            }
+        }
+        return path;
+    }
+
+    /**
+     * Returns the cost of the best path the last run found from its start to v.
+     * Only jump points are given a cost.
+     *
+     * @param v A vertex id.
+     * @return The cost of the path, or SearchScratch.INFINITY if v was not reached.
+     */
+    public int distance(int v) {
+        return this.scratch.distance(v);
+    }
+
+    /*********************************************************
+     * 				Private helper methods
+     *********************************************************/
+
+    /**
+     * Writes the neighbors of u worth jumping to into the buffer. Without a parent
+     * these are all neighbors of u. Otherwise they are the neighbors ahead of the
+     * direction u was entered from, and the cells beside u that a blocked cell
+     * may have made reachable only through u.
+     * @return The number of neighbors written
+     */
+    private int successors(int u, int parent, int[] out) {
+        if (parent < 0) {
+            return this.grid.neighbors(u, out);
+        }
+
+        int i = this.grid.row(u);
+        int j = this.grid.col(u);
+        int di = Integer.signum(i - this.grid.row(parent));
+        int dj = Integer.signum(j - this.grid.col(parent));
+        int count = 0;
+
+        if (di != 0 && dj != 0) {
+            boolean vertical = open(i + di, j);
+            boolean horizontal = open(i, j + dj);
+            if (vertical) {
+                out[count++] = this.grid.index(i + di, j);
+            }
+            if (horizontal) {
+                out[count++] = this.grid.index(i, j + dj);
+            }
+            if (vertical && horizontal && open(i + di, j + dj)) {
+                out[count++] = this.grid.index(i + di, j + dj);
+            }
+        } else if (dj != 0) {
+            boolean above = open(i - 1, j);
+            boolean below = open(i + 1, j);
+            if (open(i, j + dj)) {
+                out[count++] = this.grid.index(i, j + dj);
+                if (above && open(i - 1, j + dj)) {
+                    out[count++] = this.grid.index(i - 1, j + dj);
+                }
+                if (below && open(i + 1, j + dj)) {
+                    out[count++] = this.grid.index(i + 1, j + dj);
+                }
+            }
+            if (above) {
+                out[count++] = this.grid.index(i - 1, j);
+            }
+            if (below) {
+                out[count++] = this.grid.index(i + 1, j);
+            }
+        } else {
+            boolean left = open(i, j - 1);
+            boolean right = open(i, j + 1);
+            if (open(i + di, j)) {
+                out[count++] = this.grid.index(i + di, j);
+                if (left && open(i + di, j - 1)) {
+                    out[count++] = this.grid.index(i + di, j - 1);
+                }
+                if (right && open(i + di, j + 1)) {
+                    out[count++] = this.grid.index(i + di, j + 1);
+                }
+            }
+            if (left) {
+                out[count++] = this.grid.index(i, j - 1);
+            }
+            if (right) {
+                out[count++] = this.grid.index(i, j + 1);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Scans from cell v, just entered by the step (di, dj), for the next jump
+     * point in that direction.
+     * @return The jump point, or -1 if the scan runs into a wall
+     */
+    private int scan(int v, int di, int dj, int target) {
+        int i = this.grid.row(v);
+        int j = this.grid.col(v);
+        while (true) {
+            int c = this.grid.index(i, j);
+            if (c == target) {
+                return c;
+            }
+            if (di != 0 && dj != 0) {
+                // A diagonal stops where one of its straight scans finds a jump point
+                if ((open(i, j + dj) && scan(c + dj, 0, dj, target) >= 0)
+                        || (open(i + di, j) && scan(c + di * this.grid.width(), di, 0, target) >= 0)) {
+                    return c;
+                }
+            } else if (dj != 0) {
+                if ((open(i - 1, j) && !open(i - 1, j - dj)) || (open(i + 1, j) && !open(i + 1, j - dj))) {
+                    return c;
+                }
+            } else {
+                if ((open(i, j - 1) && !open(i - di, j - 1)) || (open(i, j + 1) && !open(i - di, j + 1))) {
+                    return c;
+                }
+            }
+
+            if (!open(i + di, j) || !open(i, j + dj) || !open(i + di, j + dj)) {
+                return -1;
+            }
+            i += di;
+            j += dj;
+        }
+    }
+
+    /**
+     * Reads the next jump point from u in the direction (di, dj) from the table.
+     * The target becomes a jump point if it lies on the line ahead, or in line
+     * with a cell the diagonal passes through.
+     * @return The jump point, or -1 if the jump runs into a wall
+     */
+    private int lookUp(int u, int di, int dj, int target) {
+        int d = direction(di, dj);
+        int jump = this.table.jump(u, d);
+        int reach = Math.abs(jump);
+        int step = di * this.grid.width() + dj;
+
+        if (target >= 0) {
+            int ti = this.grid.row(target) - this.grid.row(u);
+            int tj = this.grid.col(target) - this.grid.col(u);
+            if (di == 0 || dj == 0) {
+                int along = di == 0 ? (ti == 0 && Integer.signum(tj) == dj ? Math.abs(tj) : 0)
+                                    : (tj == 0 && Integer.signum(ti) == di ? Math.abs(ti) : 0);
+                if (along > 0 && along <= reach) {
+                    return target;
+                }
+            } else if (Integer.signum(ti) == di && Integer.signum(tj) == dj) {
+                int k = Math.min(Math.abs(ti), Math.abs(tj));
+                if (k <= reach) {
+                    return u + (jump > 0 ? Math.min(jump, k) : k) * step;
+                }
+            }
+        }
+        return jump > 0 ? u + jump * step : -1;
+    }
+
+    /**
+     * Returns the table index of the direction (di, dj).
+     */
+    private static int direction(int di, int dj) {
+        for (int d = 0; d < 8; d++) {
+            if (JumpPointTable.DI[d] == di && JumpPointTable.DJ[d] == dj) {
+                return d;
+            }
+        }
+        throw new IllegalStateException("(" + di + ", " + dj + ") is not a direction.");
+    }
+
+    /**
+     * Returns the number of steps between two cells on a straight or diagonal line.
+     */
+    private int steps(int u, int v) {
+        return Math.max(Math.abs(this.grid.row(v) - this.grid.row(u)), Math.abs(this.grid.col(v) - this.grid.col(u)));
+    }
+
+    /**
+     * Returns the cost of the straight or diagonal line between two cells.
+     */
+    private int cost(int u, int v) {
+        int di = Math.abs(this.grid.row(v) - this.grid.row(u));
+        int dj = Math.abs(this.grid.col(v) - this.grid.col(u));
+        return Math.max(di, dj) == Math.min(di, dj) ? di * this.grid.diagonalCost() : (di + dj) * this.grid.straightCost();
+    }
+
+    /**
+     * Returns true if the cell is on the grid and active.
+     */
+    private boolean open(int i, int j) {
+        return i >= 0 && i < this.grid.height() && j >= 0 && j < this.grid.width() && this.grid.isActive(i, j);
+    }
+}
@@ -0,0 +1,173 @@
+package search;
+
+import graph.GridGraph;
+
+/**
+ * The precomputed jump distances used by JPS+.  For every cell and each of the
+ * eight directions the table holds how many steps a jump from that cell travels
+ * before it lands on a jump point.  If no jump point lies ahead, it holds the
+ * number of free steps before a wall, negated.  The distances are kept in one
+ * short array, eight entries per cell, so a cell's directions share a cache line.
+ * <br><br>
+ * The jump points are those of {@link JumpPointSearch} without a target.  A
+ * search adds the target itself while it reads the table.  The table remembers
+ * the version of the grid it was built from and is rebuilt the next time it is
+ * used after a cell of the grid changes state.
+ *
+ * @author Tyler Weir
+ */
+public class JumpPointTable {
+    /** The row and column step of each direction. Straight directions come first. */
+    static final int[] DI = {-1, 1, 0, 0, -1, -1, 1, 1};
+    static final int[] DJ = {0, 0, -1, 1, -1, 1, -1, 1};
+
+    private static final int N = 0, S = 1, W = 2, E = 3;
+
+    private final GridGraph grid;
+    private final short[] jumps;
+    private int version;
+
+    /**
+     * Constructs the jump table of a grid.
+     *
+     * @param grid An eight-connected grid no wider or taller than Short.MAX_VALUE.
+     */
+    public JumpPointTable(GridGraph grid) {
+        if (!grid.isDiagonal()) {
+            throw new IllegalStateException("Jump points need an eight-connected grid.");
+        }
+        if (grid.width() > Short.MAX_VALUE || grid.height() > Short.MAX_VALUE) {
+            throw new IllegalStateException("The grid is too large for a jump table.");
+        }
+        this.grid = grid;
+        this.jumps = new short[8 * grid.numIds()];
+        rebuild();
+    }
+
+    /**
+     * Returns the grid the table was built from.
+     *
+     * @return The grid of the table.
+     */
+    public GridGraph grid() {
+        return this.grid;
+    }
+
+    /**
+     * Returns the jump distance from a cell in one direction.
+     *
+     * @param v An active cell of the grid.
+     * @param direction The index of the direction, as in DI and DJ.
+     * @return The steps to the next jump point, or minus the free steps if there is none.
+     */
+    public int jump(int v, int direction) {
+        return this.jumps[8 * v + direction];
+    }
+
+    /**
+     * Rebuilds the table if a cell of the grid changed since it was built.
+     */
+    public void refresh() {
+        if (this.version != this.grid.version()) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Recomputes every jump distance. Each direction is swept against its step
+     * so the entry a cell depends on is always computed first.
+     */
+    public void rebuild() {
+        int width = this.grid.width();
+        int height = this.grid.height();
+
+        // Straight directions first, the diagonal ones read them
+        for (int i = 0; i < height; i++) {
+            for (int j = width - 1; j >= 0; j--) {
+                straight(i, j, E);
+            }
+            for (int j = 0; j < width; j++) {
+                straight(i, j, W);
+            }
+        }
+        for (int j = 0; j < width; j++) {
+            for (int i = 0; i < height; i++) {
+                straight(i, j, N);
+            }
+            for (int i = height - 1; i >= 0; i--) {
+                straight(i, j, S);
+            }
+        }
+
+        for (int d = 4; d < 8; d++) {
+            int di = DI[d];
+            int dj = DJ[d];
+            for (int a = 0; a < height; a++) {
+                int i = di > 0 ? height - 1 - a : a;
+                for (int b = 0; b < width; b++) {
+                    diagonal(i, dj > 0 ? width - 1 - b : b, d);
+                }
+            }
+        }
+        this.version = this.grid.version();
+    }
+
+    /*********************************************************
+     * 				Private helper methods
+     *********************************************************/
+
+    /**
+     * Computes the jump distance of a cell in a straight direction, assuming the
+     * entry of the next cell in that direction is done.
+     */
+    private void straight(int i, int j, int d) {
+        int di = DI[d];
+        int dj = DJ[d];
+        int ni = i + di;
+        int nj = j + dj;
+        int v = this.grid.index(i, j);
+        if (!open(i, j) || !open(ni, nj)) {
+            this.jumps[8 * v + d] = 0;
+            return;
+        }
+
+        boolean forced;
+        if (dj != 0) {
+            forced = (open(ni - 1, nj) && !open(i - 1, j)) || (open(ni + 1, nj) && !open(i + 1, j));
+        } else {
+            forced = (open(ni, nj - 1) && !open(i, j - 1)) || (open(ni, nj + 1) && !open(i, j + 1));
+        }
+        int next = this.jumps[8 * this.grid.index(ni, nj) + d];
+        this.jumps[8 * v + d] = (short)(forced ? 1 : next > 0 ? next + 1 : next - 1);
+    }
+
+    /**
+     * Computes the jump distance of a cell in a diagonal direction, assuming the
+     * entry of the next cell in that direction is done. A diagonal step may not
+     * cut the corner of a blocked cell.
+     */
+    private void diagonal(int i, int j, int d) {
+        int di = DI[d];
+        int dj = DJ[d];
+        int ni = i + di;
+        int nj = j + dj;
+        int v = this.grid.index(i, j);
+        if (!open(i, j) || !open(ni, j) || !open(i, nj) || !open(ni, nj)) {
+            this.jumps[8 * v + d] = 0;
+            return;
+        }
+
+        // The next cell is a jump point if a straight jump from it finds one
+        int n = this.grid.index(ni, nj);
+        boolean jumpPoint = this.jumps[8 * n + (dj > 0 ? E : W)] > 0 || this.jumps[8 * n + (di > 0 ? S : N)] > 0;
+        int next = this.jumps[8 * n + d];
+        this.jumps[8 * v + d] = (short)(jumpPoint ? 1 : next > 0 ? next + 1 : next - 1);
+    }
+
+    /**
+     * Returns true if the cell is on the grid and active.
+     */
+    private boolean open(int i, int j) {
+        return i >= 0 && i < this.grid.height() && j >= 0 && j < this.grid.width() && this.grid.isActive(i, j);
+    }
+}
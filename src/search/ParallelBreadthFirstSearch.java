@@ -0,0 +1,320 @@
+package search;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import graph.IntGraphIfc;
+
+/**
+ * A level synchronous Breadth First Search that expands each level on a
+ * {@link ForkJoinPool}.  Every level is expanded in one of two directions, as in
+ * Beamer's direction optimizing BFS.  Top down, the frontier vertices are split
+ * among the workers and each one claims its unreached neighbors with a compare
+ * and set on the visited bitset.  Bottom up, the unreached vertices are split by
+ * 64 bit words of the bitset and each one looks for a parent among its in
+ * neighbors in the frontier bitset; a worker owns its words, so nothing needs to
+ * be atomic.  The search goes bottom up once the frontier holds more than
+ * 1/ALPHA of the unreached vertices, and back top down once it shrinks below
+ * 1/BETA of all vertices.  Vertex counts stand in for Beamer's edge counts.
+ * <br><br>
+ * Top down frontiers are kept as lists and bottom up frontiers as bitsets, since
+ * scanning a whole bitset for a handful of vertices would cost O(V / 64) a level.
+ * The distances are exactly those of {@link BreadthFirstSearch}; a vertex may get
+ * a different parent of the same depth.  The listener is told about each level's
+ * vertices on the calling thread once the level is done, so it need not be
+ * thread safe.  The graph is read from several threads at once, so it must not
+ * change during a run.
+ *
+ * @author Tyler Weir
+ */
+public class ParallelBreadthFirstSearch extends GraphSearch {
+    /** Go bottom up once the frontier exceeds this fraction of the unreached vertices. */
+    static final int ALPHA = 14;
+    /** Go top down once the frontier is below this fraction of all vertices. */
+    static final int BETA = 24;
+    // The smallest share of work handed to one fork join task
+    private static final int GRAIN_VERTICES = 1024;
+    private static final int GRAIN_WORDS = 64;
+
+    private final ForkJoinPool pool;
+    private final int words;
+    private final AtomicLongArray visited;
+    private AtomicLongArray frontierBits;
+    private AtomicLongArray nextBits;
+    private final AtomicInteger nextSize;
+    private int[] frontier;
+    private int[] next;
+    // The reverse graph the bottom up steps of the current run read
+    private IntGraphIfc reverse;
+
+    /**
+     * Constructs a parallel breadth first search that runs on the common pool.
+     *
+     * @param graph The graph the search will explore.
+     * @param listener The listener told about every visited vertex.
+     */
+    public ParallelBreadthFirstSearch(IntGraphIfc graph, VisitListener listener) {
+        this(graph, ForkJoinPool.commonPool(), listener);
+    }
+
+    /**
+     * Constructs a parallel breadth first search.
+     *
+     * @param graph The graph the search will explore.
+     * @param pool The pool the levels are expanded on.
+     * @param listener The listener told about every visited vertex.
+     */
+    public ParallelBreadthFirstSearch(IntGraphIfc graph, ForkJoinPool pool, VisitListener listener) {
+        super(graph, listener);
+        this.pool = pool;
+        this.words = (graph.numIds() + 63) >>> 6;
+        this.visited = new AtomicLongArray(this.words);
+        this.frontierBits = new AtomicLongArray(this.words);
+        this.nextBits = new AtomicLongArray(this.words);
+        this.nextSize = new AtomicInteger();
+        this.frontier = new int[graph.numIds()];
+        this.next = new int[graph.numIds()];
+    }
+
+    /**
+     * Expands s one level at a time until the target's level is done or nothing
+     * is left to reach.
+     */
+    protected boolean search(int s, int target) {
+        SearchScratch scratch = this.scratch;
+        scratch.reset();
+        for (int w = 0; w < this.words; w++) {
+            this.visited.set(w, 0L);
+        }
+
+        scratch.reach(s, 0, -1);
+        this.visited.set(s >>> 6, 1L << s);
+        this.listener.visit(s);
+        if (s == target) {
+            return true;
+        }
+
+        this.frontier[0] = s;
+        int size = 1;
+        int previous = 0;
+        int unreached = this.graph.numVertices() - 1;
+        boolean bottomUp = false;
+        for (int depth = 0; size > 0; depth++) {
+            this.expanded += size;
+
+            // Beamer only goes back top down while the frontier is shrinking
+            if (!bottomUp && size > unreached / ALPHA) {
+                bottomUp = true;
+                toBits(size);
+            } else if (bottomUp && size < previous && size < this.graph.numVertices() / BETA) {
+                bottomUp = false;
+                size = toList();
+            }
+            previous = size;
+
+            if (bottomUp) {
+                this.reverse = reverse();
+                size = this.pool.invoke(new BottomUp(depth + 1, 0, this.words));
+                AtomicLongArray t = this.frontierBits;
+                this.frontierBits = this.nextBits;
+                this.nextBits = t;
+                reportBits();
+            } else {
+                this.nextSize.set(0);
+                TopDown task = new TopDown(depth + 1, 0, size);
+                if (size <= GRAIN_VERTICES) {
+                    task.compute();
+                } else {
+                    this.pool.invoke(task);
+                }
+                size = this.nextSize.get();
+                int[] t = this.frontier;
+                this.frontier = this.next;
+                this.next = t;
+                for (int k = 0; k < size; k++) {
+                    this.listener.visit(this.frontier[k]);
+                }
+            }
+            unreached -= size;
+
+            if (target != NO_TARGET && isSet(this.visited, target)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the number of edges on a shortest path from the last start vertex to v.
+     *
+     * @param v A vertex id.
+     * @return The distance to v, or -1 if v was not reached.
+     */
+    public int distance(int v) {
+        return this.scratch.isReached(v) ? this.scratch.distance(v) : -1;
+    }
+
+    /*********************************************************
+     * 				Private helper methods
+     *********************************************************/
+
+    /**
+     * Expands a slice of the frontier list top down.
+     */
+    private class TopDown extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final int depth;
+        private final int lo;
+        private final int hi;
+
+        TopDown(int depth, int lo, int hi) {
+            this.depth = depth;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        protected void compute() {
+            if (this.hi - this.lo > GRAIN_VERTICES) {
+                int mid = (this.lo + this.hi) >>> 1;
+                invokeAll(new TopDown(this.depth, this.lo, mid), new TopDown(this.depth, mid, this.hi));
+                return;
+            }
+
+            int[] buffer = new int[graph.maxDegree()];
+            int[] found = new int[Math.min(graph.numIds(), (this.hi - this.lo) * graph.maxDegree())];
+            int count = 0;
+            for (int k = this.lo; k < this.hi; k++) {
+                int u = frontier[k];
+                int degree = graph.neighbors(u, buffer);
+                for (int e = 0; e < degree; e++) {
+                    int v = buffer[e];
+                    if (claim(visited, v)) {
+                        scratch.reach(v, this.depth, u);
+                        found[count++] = v;
+                    }
+                }
+            }
+            System.arraycopy(found, 0, next, nextSize.getAndAdd(count), count);
+        }
+    }
+
+    /**
+     * Looks for parents of the unreached vertices in a range of bitset words.
+     * Returns the number of vertices reached.
+     */
+    private class BottomUp extends RecursiveTask<Integer> {
+        private static final long serialVersionUID = 1L;
+        private final int depth;
+        private final int lo;
+        private final int hi;
+
+        BottomUp(int depth, int lo, int hi) {
+            this.depth = depth;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        protected Integer compute() {
+            if (this.hi - this.lo > GRAIN_WORDS) {
+                int mid = (this.lo + this.hi) >>> 1;
+                BottomUp left = new BottomUp(this.depth, this.lo, mid);
+                left.fork();
+                int right = new BottomUp(this.depth, mid, this.hi).compute();
+                return left.join() + right;
+            }
+
+            int[] buffer = new int[reverse.maxDegree()];
+            int n = graph.numIds();
+            int count = 0;
+            for (int w = this.lo; w < this.hi; w++) {
+                long reached = 0L;
+                long unvisited = ~visited.get(w);
+                while (unvisited != 0L) {
+                    int v = (w << 6) + Long.numberOfTrailingZeros(unvisited);
+                    unvisited &= unvisited - 1;
+                    if (v >= n || !graph.isVertex(v)) {
+                        continue;
+                    }
+                    int degree = reverse.neighbors(v, buffer);
+                    for (int e = 0; e < degree; e++) {
+                        int u = buffer[e];
+                        if (isSet(frontierBits, u)) {
+                            scratch.reach(v, this.depth, u);
+                            reached |= 1L << v;
+                            break;
+                        }
+                    }
+                }
+                nextBits.set(w, reached);
+                if (reached != 0L) {
+                    visited.set(w, visited.get(w) | reached);
+                    count += Long.bitCount(reached);
+                }
+            }
+            return count;
+        }
+    }
+
+    /**
+     * Sets the bit of v, returning true if this call set it.
+     */
+    private static boolean claim(AtomicLongArray bits, int v) {
+        int w = v >>> 6;
+        long bit = 1L << v;
+        long old = bits.get(w);
+        while ((old & bit) == 0L) {
+            if (bits.compareAndSet(w, old, old | bit)) {
+                return true;
+            }
+            old = bits.get(w);
+        }
+        return false;
+    }
+
+    /**
+     * Returns true if the bit of v is set.
+     */
+    private static boolean isSet(AtomicLongArray bits, int v) {
+        return (bits.get(v >>> 6) & (1L << v)) != 0L;
+    }
+
+    /**
+     * Copies the first size vertices of the frontier list into the frontier bitset.
+     */
+    private void toBits(int size) {
+        for (int w = 0; w < this.words; w++) {
+            this.frontierBits.set(w, 0L);
+        }
+        for (int k = 0; k < size; k++) {
+            int v = this.frontier[k];
+            this.frontierBits.set(v >>> 6, this.frontierBits.get(v >>> 6) | (1L << v));
+        }
+    }
+
+    /**
+     * Copies the frontier bitset into the frontier list, returning its size.
+     */
+    private int toList() {
+        int size = 0;
+        for (int w = 0; w < this.words; w++) {
+            for (long bits = this.frontierBits.get(w); bits != 0L; bits &= bits - 1) {
+                this.frontier[size++] = (w << 6) + Long.numberOfTrailingZeros(bits);
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Tells the listener about the vertices of the frontier bitset.
+     */
+    private void reportBits() {
+        for (int w = 0; w < this.words; w++) {
+            for (long bits = this.frontierBits.get(w); bits != 0L; bits &= bits - 1) {
+                this.listener.visit((w << 6) + Long.numberOfTrailingZeros(bits));
+            }
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package search;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import graph.CsrGraph;
+import graph.GridGraph;
+import graph.IntGraphIfc;
+
+/**
+ * Answers many independent point to point queries at once against one graph.
+ * The engine freezes the graph into a snapshot when it is built, so the caller
+ * may go on editing the original.  A batch of queries is cut into chunks that
+ * run on a pool of worker threads, and the caller gets a future of the whole
+ * batch's paths.
+ * <br><br>
+ * Every chunk borrows a search from a pool of idle searches and returns it when
+ * done, so there are never more searches than chunks running at once.  A search
+ * keeps its {@link SearchScratch} between queries and resets it in constant
+ * time, so a query allocates nothing but its path.  The workers share nothing
+ * but the snapshot, which they only read, so throughput grows with the number
+ * of cores.
+ *
+ * @author Tyler Weir
+ */
+public class QueryEngine implements AutoCloseable {
+    // The most queries one chunk answers before it lets another chunk run
+    private static final int CHUNK = 64;
+    // The fewest chunks per worker a large batch is cut into, to even out the load
+    private static final int CHUNKS_PER_WORKER = 4;
+
+    /**
+     * Creates the searches the workers run. It is called once for every search
+     * the pool needs, from whichever thread needs it.
+     */
+    public interface SearchFactory {
+        /**
+         * Creates a search over the engine's snapshot of the graph.
+         *
+         * @param graph The snapshot the search will explore.
+         * @return A new search that no other thread uses.
+         */
+        GraphSearch newSearch(IntGraphIfc graph);
+    }
+
+    private final IntGraphIfc graph;
+    private final SearchFactory factory;
+    private final ExecutorService workers;
+    private final int numWorkers;
+    private final ConcurrentLinkedQueue<GraphSearch> idle;
+
+    /**
+     * Constructs an engine with its own pool of daemon worker threads.
+     *
+     * @param graph The graph to answer queries on. The engine searches a snapshot
+     * of it, so later changes are not seen.
+     * @param factory Creates the searches the workers run.
+     * @param threads The number of worker threads, at least 1.
+     */
+    public QueryEngine(IntGraphIfc graph, SearchFactory factory, int threads) {
+        this(graph, factory, Executors.newFixedThreadPool(checkThreads(threads), new WorkerFactory()), threads);
+    }
+
+    /**
+     * Constructs an engine whose chunks run on the given executor, for example
+     * one that starts a virtual thread per task. The engine shuts the executor
+     * down when it is closed.
+     *
+     * @param graph The graph to answer queries on. The engine searches a snapshot
+     * of it, so later changes are not seen.
+     * @param factory Creates the searches the workers run.
+     * @param workers The executor the chunks run on.
+     * @param parallelism The number of chunks the executor runs at once.
+     */
+    public QueryEngine(IntGraphIfc graph, SearchFactory factory, ExecutorService workers, int parallelism) {
+        this.graph = snapshot(graph);
+        this.factory = factory;
+        this.workers = workers;
+        this.numWorkers = checkThreads(parallelism);
+        this.idle = new ConcurrentLinkedQueue<GraphSearch>();
+        // Build one search up front so a broken factory fails here
+        this.idle.offer(factory.newSearch(this.graph));
+    }
+
+    /**
+     * Returns an immutable copy of a graph. A compressed sparse row graph cannot
+     * change and is returned as it is; a grid is copied along with its board.
+     *
+     * @param graph The graph to copy.
+     * @return A graph with the same ids and edges that no one can change.
+     */
+    public static IntGraphIfc snapshot(IntGraphIfc graph) {
+        if (graph instanceof CsrGraph) {
+            return graph;
+        }
+        if (graph instanceof GridGraph) {
+            GridGraph grid = (GridGraph)graph;
+            return new GridGraph(grid.board().copy(), grid.isDiagonal());
+        }
+        throw new IllegalStateException("Only grids and CSR graphs can be frozen; convert the graph with CsrGraphBuilder first.");
+    }
+
+    /**
+     * Returns the snapshot the queries are answered on.
+     *
+     * @return The engine's graph.
+     */
+    public IntGraphIfc graph() {
+        return this.graph;
+    }
+
+    /**
+     * Answers a batch of queries. Query k asks for a path from sources[k] to
+     * targets[k]. If any query names a vertex that does not occur in the graph,
+     * the future fails with an IllegalStateException.
+     *
+     * @param sources The start vertex of each query.
+     * @param targets The target vertex of each query.
+     * @return A future of the paths, where path k is the answer to query k and
+     * is NO_PATH if the target cannot be reached.
+     */
+    public CompletableFuture<int[][]> submit(int[] sources, int[] targets) {
+        if (sources.length != targets.length) {
+            throw new IllegalStateException("Every query needs both a source and a target.");
+        }
+        int n = sources.length;
+        int[][] paths = new int[n][];
+        CompletableFuture<int[][]> result = new CompletableFuture<int[][]>();
+        if (n == 0) {
+            result.complete(paths);
+            return result;
+        }
+
+        int chunk = Math.max(1, Math.min(CHUNK, (n + this.numWorkers * CHUNKS_PER_WORKER - 1) / (this.numWorkers * CHUNKS_PER_WORKER)));
+        AtomicInteger remaining = new AtomicInteger((n + chunk - 1) / chunk);
+        for (int lo = 0; lo < n; lo += chunk) {
+            int from = lo;
+            int to = Math.min(n, lo + chunk);
+            this.workers.execute(() -> {
+                try {
+                    answer(sources, targets, from, to, paths);
+                } catch (Throwable e) {
+                    // Anything left uncaught would leave the future waiting forever
+                    result.completeExceptionally(e);
+                }
+                // The last chunk to finish publishes every chunk's paths
+                if (remaining.decrementAndGet() == 0) {
+                    result.complete(paths);
+                }
+            });
+        }
+        return result;
+    }
+
+    /**
+     * Stops the workers. Batches already submitted are still answered.
+     */
+    public void close() {
+        this.workers.shutdown();
+    }
+
+    /*********************************************************
+     * 				Private helper methods
+     *********************************************************/
+
+    /**
+     * Answers queries lo to hi - 1 with a borrowed search.
+     */
+    private void answer(int[] sources, int[] targets, int lo, int hi, int[][] paths) {
+        GraphSearch search = this.idle.poll();
+        if (search == null) {
+            search = this.factory.newSearch(this.graph);
+        }
+        try {
+            for (int k = lo; k < hi; k++) {
+                paths[k] = search.findPath(sources[k], targets[k]);
+            }
+        } finally {
+            this.idle.offer(search);
+        }
+    }
+
+    /**
+     * Throws an exception unless there is at least one worker.
+     */
+    private static int checkThreads(int threads) {
+        if (threads < 1) {
+            throw new IllegalStateException("The engine needs at least one worker thread.");
+        }
+        return threads;
+    }
+
+    /**
+     * Names the worker threads and keeps them from holding the JVM open.
+     */
+    private static class WorkerFactory implements ThreadFactory {
+        private final AtomicInteger count = new AtomicInteger();
+
+        public Thread newThread(Runnable r) {
+            Thread t = new Thread(r, "query-worker-" + this.count.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        }
+    }
+}
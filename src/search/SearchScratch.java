@@ -0,0 +1,98 @@
+package search;
+
+import java.util.Arrays;
+
+/**
+ * Per-search scratch arrays holding the distance and parent of every vertex a
+ * run has reached.  Each entry is stamped with the epoch of the run that wrote
+ * it, and an entry with an older stamp reads as unreached.  Starting a new run
+ * just advances the epoch, so clearing the arrays is O(1) and a run only 
+ * touches the vertices it actually explores.
+ * 
+ * @author Tyler Weir
+ */
+public class SearchScratch {
+    /** The distance of a vertex that has not been reached. */
+    public static final int INFINITY = Integer.MAX_VALUE;
+
+    private final int[] stamp;
+    private final int[] dist;
+    private final int[] parent;
+    private int epoch;
+
+    /**
+     * Constructs scratch space for the vertex ids 0 to capacity - 1.
+     * 
+     * @param capacity The number of vertex ids.
+     */
+    public SearchScratch(int capacity) {
+        this.stamp = new int[capacity];
+        this.dist = new int[capacity];
+        this.parent = new int[capacity];
+        this.epoch = 0;
+    }
+
+    /**
+     * Forgets every vertex reached so far.  The stamps are only rewritten when the
+     * epoch counter wraps around.
+     */
+    public void reset() {
+        this.epoch++;
+        if (this.epoch == Integer.MAX_VALUE) {
+            Arrays.fill(this.stamp, 0);
+            this.epoch = 1;
+        }
+    }
+
+    /**
+     * Returns true if v has been reached since the last reset.
+     * 
+     * @param v A vertex id.
+     * @return True if v has been reached, false otherwise.
+     */
+    public boolean isReached(int v) {
+        return this.stamp[v] == this.epoch;
+    }
+
+    /**
+     * Records the distance and parent of v.
+     * 
+     * @param v A vertex id.
+     * @param distance The length of the best known path to v.
+     * @param from The vertex before v on that path, or -1 if v is the start.
+     */
+    public void reach(int v, int distance, int from) {
+        this.stamp[v] = this.epoch;
+        this.dist[v] = distance;
+        this.parent[v] = from;
+    }
+
+    /**
+     * Returns the distance recorded for v.
+     * 
+     * @param v A vertex id.
+     * @return The distance to v, or INFINITY if v has not been reached.
+     */
+    public int distance(int v) {
+        return this.stamp[v] == this.epoch ? this.dist[v] : INFINITY;
+    }
+
+    /**
+     * Returns the parent recorded for v.
+     * 
+     * @param v A vertex id.
+     * @return The vertex before v, or -1 if v is the start or has not been reached.
+     */
+    public int parent(int v) {
+        return this.stamp[v] == this.epoch ? this.parent[v] : -1;
+    }
+
+    /**
+     * Returns the number of vertex ids the scratch space covers.
+     * 
+     * @return The capacity of the scratch space.
+     */
+    public int capacity() {
+        return this.stamp.length;
+    }
+}
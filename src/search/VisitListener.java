@@ -0,0 +1,23 @@
+package search;
+
+/**
+ * A callback that is told about every vertex a search visits, in the order the
+ * search visits them.  The visualizer uses it to colour squares as they are
+ * discovered.
+ * 
+ * @author Tyler Weir
+ */
+public interface VisitListener {
+
+    /**
+     * A listener that ignores every visit.
+     */
+    public static final VisitListener NONE = v -> {};
+
+    /**
+     * Called when the search visits a vertex.
+     * 
+     * @param v The id of the visited vertex.
+     */
+    public void visit(int v);
+}
@@ -0,0 +1,163 @@
+package util;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A fixed size set of ints from 0 to capacity - 1 that any number of threads may add
+ * to while one consumer thread takes elements out.  Each bit is set and cleared
+ * with a compare and swap, so no thread ever locks or waits, and adding an
+ * element that is already in the set changes nothing.  The set never grows: it
+ * holds one bit per possible element however many times they are added.
+ * <br><br>
+ * A summary keeps one bit per word of elements, set by a producer after it sets
+ * the element and cleared by the consumer before it reads the word, so the
+ * consumer skips empty regions 64 words at a time and never misses an element.
+ * The consumer resumes where it stopped, so it sweeps the whole set in turn.
+ * <br><br>
+ * The visualizer spills visited squares into it when the ring buffer to the
+ * renderer is full.
+ *
+ * @author Tyler Weir
+ */
+public class AtomicBitSet {
+    private final AtomicLongArray words;
+    // Bit w is set whenever word w may hold an element
+    private final AtomicLongArray summary;
+    private final AtomicInteger size = new AtomicInteger();
+    // The summary word the consumer looks at first, read and written only by it
+    private int cursor;
+
+    /**
+     * Constructs an empty set.
+     *
+     * @param capacity The number of possible elements, 0 to capacity - 1.
+     */
+    public AtomicBitSet(int capacity) {
+        int numWords = (capacity + 63) >>> 6;
+        this.words = new AtomicLongArray(numWords);
+        this.summary = new AtomicLongArray((numWords + 63) >>> 6);
+    }
+
+    /**
+     * Adds an element to the set.  Any thread may call this, and it never waits.
+     *
+     * @param element The element to add.
+     * @return True if the element was added, false if it was already in the set.
+     */
+    public boolean add(int element) {
+        if (!setBit(this.words, element)) {
+            return false;
+        }
+        setBit(this.summary, element >>> 6);
+        this.size.incrementAndGet();
+        return true;
+    }
+
+    /**
+     * Removes up to max elements in increasing order from where the last call
+     * stopped, wrapping around to the start.  Only the consumer may call this.
+     *
+     * @param out The array the elements are copied into, from index 0.
+     * @param max The most elements to remove, at most out.length.
+     * @return The number of elements removed.
+     */
+    public int drain(int[] out, int max) {
+        int n = 0;
+        int numSummary = this.summary.length();
+        // Stop early once every element counted so far has been found
+        for (int k = 0; k <= numSummary && n < max && n < this.size.get(); k++) {
+            int s = (this.cursor + k) % numSummary;
+            for (long bits = this.summary.get(s); bits != 0L && n < max; bits &= bits - 1) {
+                int w = (s << 6) + Long.numberOfTrailingZeros(bits);
+                n = takeWord(w, out, n, max);
+            }
+            if (n == max) {
+                this.cursor = s;
+                break;
+            }
+        }
+        this.size.addAndGet(-n);
+        return n;
+    }
+
+    /**
+     * Returns the number of elements in the set.  The answer may be stale by the
+     * time it returns if a producer is active.
+     *
+     * @return The number of elements waiting to be removed.
+     */
+    public int size() {
+        return this.size.get();
+    }
+
+    /**
+     * Returns true if the set holds no elements.
+     *
+     * @return True if the set is empty, false otherwise.
+     */
+    public boolean isEmpty() {
+        return size() <= 0;
+    }
+
+    /*********************************************************
+     * 				Private helper methods
+     *********************************************************/
+
+    /**
+     * Takes up to max - n elements out of word w into out from index n. The
+     * summary bit is cleared first and set again if the word is left non-empty,
+     * so an element added meanwhile is always found later. Returns the new n.
+     */
+    private int takeWord(int w, int[] out, int n, int max) {
+        clearBit(this.summary, w);
+        long x, taken;
+        do {
+            x = this.words.get(w);
+            taken = x;
+            // Keep only the lowest max - n bits
+            for (int extra = Long.bitCount(x) - (max - n); extra > 0; extra--) {
+                taken &= ~Long.highestOneBit(taken);
+            }
+        } while (x != 0L && !this.words.compareAndSet(w, x, x & ~taken));
+
+        for (long bits = taken; bits != 0L; bits &= bits - 1) {
+            out[n++] = (w << 6) + Long.numberOfTrailingZeros(bits);
+        }
+        if (this.words.get(w) != 0L) {
+            setBit(this.summary, w);
+        }
+        return n;
+    }
+
+    /**
+     * Sets bit i of a bitset. Returns false if it was already set.
+     */
+    private static boolean setBit(AtomicLongArray bits, int i) {
+        int w = i >>> 6;
+        long bit = 1L << i;
+        long x;
+        do {
+            x = bits.get(w);
+            if ((x & bit) != 0L) {
+                return false;
+            }
+        } while (!bits.compareAndSet(w, x, x | bit));
+        return true;
+    }
+
+    /**
+     * Clears bit i of a bitset.
+     */
+    private static void clearBit(AtomicLongArray bits, int i) {
+        int w = i >>> 6;
+        long bit = 1L << i;
+        long x;
+        do {
+            x = bits.get(w);
+            if ((x & bit) == 0L) {
+                return;
+            }
+        } while (!bits.compareAndSet(w, x, x & ~bit));
+    }
+}
@@ -0,0 +1,264 @@
+package util;
+
+import java.util.Arrays;
+
+/**
+ * This class holds the state of every square of a rectangular board. Squares
+ * are indexed by <code>i * width + j</code>. The active and visited flags are
+ * packed into two <code>long[]</code> bitsets, one bit per square, so a board of
+ * a hundred million squares takes about 25 MB instead of a hundred million
+ * objects.  Terrain costs take a byte per square, but the array is only
+ * allocated once some square costs more than 1.
+ * <br><br>
+ * A {@link Node} may be used as a view of a single square.  The board also keeps
+ * a version counter that changes whenever a square is toggled or its cost
+ * changes, so tables computed from the board can tell when they are stale.
+ *
+ * @author Tyler Weir
+ */
+public class Board {
+    /** The highest terrain cost a square may have. */
+    public static final int MAX_COST = 9;
+
+    private final int width;
+    private final int height;
+    private final long[] active;
+    private final long[] visited;
+    private byte[] costs;
+    private int numActive;
+    private int numCostly;
+    private int version;
+
+    /**
+     * Constructs a board whose squares all start out active, unvisited and of cost 1.
+     *
+     * @param width The number of columns of the board.
+     * @param height The number of rows of the board.
+     */
+    public Board(int width, int height) {
+        if (width <= 0 || height <= 0) {
+            throw new IllegalStateException("The board dimensions must be positive.");
+        }
+        long size = (long)width * height;
+        if (size > Integer.MAX_VALUE) {
+            throw new IllegalStateException("The board has too many squares to index with an int.");
+        }
+        this.width = width;
+        this.height = height;
+        this.active = new long[words((int)size)];
+        this.visited = new long[words((int)size)];
+        setAllActive();
+    }
+
+    /**
+     * Returns a board with the same active squares and costs as this one, and no
+     * visited squares. Later changes to either board do not affect the other.
+     *
+     * @return A copy of the board.
+     */
+    public Board copy() {
+        Board copy = new Board(this.width, this.height);
+        System.arraycopy(this.active, 0, copy.active, 0, this.active.length);
+        copy.costs = this.costs == null ? null : this.costs.clone();
+        copy.numActive = this.numActive;
+        copy.numCostly = this.numCostly;
+        return copy;
+    }
+
+    /**
+     * Returns the number of columns of the board.
+     * @return The width of the board.
+     */
+    public int width() {
+        return this.width;
+    }
+
+    /**
+     * Returns the number of rows of the board.
+     * @return The height of the board.
+     */
+    public int height() {
+        return this.height;
+    }
+
+    /**
+     * Returns the number of squares on the board.
+     * @return The width times the height of the board.
+     */
+    public int size() {
+        return this.width * this.height;
+    }
+
+    /**
+     * Returns the index of the square at row i and column j.
+     * @param i The row of the square.
+     * @param j The column of the square.
+     * @return The index of the square.
+     */
+    public int index(int i, int j) {
+        return i * this.width + j;
+    }
+
+    /**
+     * Returns a view of the square at row i and column j.
+     * @param i The row of the square.
+     * @param j The column of the square.
+     * @return A node that reads and writes the square's state on this board.
+     */
+    public Node node(int i, int j) {
+        return new Node(this, index(i, j));
+    }
+
+    /**
+     * Returns true if the square is active.
+     * @param v The index of the square.
+     * @return True if the square is active, false otherwise.
+     */
+    public boolean isActive(int v) {
+        return (this.active[v >>> 6] & (1L << v)) != 0;
+    }
+
+    /**
+     * Sets the state of a square.
+     * @param v The index of the square.
+     * @param isActive The new state of the square.
+     */
+    public void setActive(int v, boolean isActive) {
+        if (isActive(v) != isActive) {
+            this.active[v >>> 6] ^= 1L << v;
+            this.numActive += isActive ? 1 : -1;
+            this.version++;
+        }
+    }
+
+    /**
+     * Toggles the state of a square from active to inactive and vise versa.
+     * @param v The index of the square.
+     */
+    public void toggle(int v) {
+        setActive(v, !isActive(v));
+    }
+
+    /**
+     * Makes every square of the board active.
+     */
+    public void setAllActive() {
+        Arrays.fill(this.active, -1L);
+        int tail = size() & 63;
+        if (tail != 0) {
+            this.active[this.active.length - 1] = (1L << tail) - 1;
+        }
+        this.numActive = size();
+        this.version++;
+    }
+
+    /**
+     * Makes every square of the board inactive.
+     */
+    public void setAllInactive() {
+        Arrays.fill(this.active, 0L);
+        this.numActive = 0;
+        this.version++;
+    }
+
+    /**
+     * Returns the number of active squares.
+     * @return The number of active squares on the board.
+     */
+    public int numActive() {
+        return this.numActive;
+    }
+
+    /**
+     * Returns the words of the active bitset. Bit v % 64 of word v / 64 is set if
+     * square v is active, and the bits past the last square are clear. The array is
+     * the board's own storage, so it must only be read.
+     * @return The active bitset of the board.
+     */
+    public long[] activeBits() {
+        return this.active;
+    }
+
+    /**
+     * Returns true if the square has been visited.
+     * @param v The index of the square.
+     * @return True if the square has been visited, false otherwise.
+     */
+    public boolean isVisited(int v) {
+        return (this.visited[v >>> 6] & (1L << v)) != 0;
+    }
+
+    /**
+     * Marks a square as visited.
+     * @param v The index of the square.
+     */
+    public void visit(int v) {
+        this.visited[v >>> 6] |= 1L << v;
+    }
+
+    /**
+     * Marks every square of the board as unvisited.
+     */
+    public void clearVisited() {
+        Arrays.fill(this.visited, 0L);
+    }
+
+    /**
+     * Returns the terrain cost of a square.
+     * @param v The index of the square.
+     * @return The cost of stepping onto the square, from 1 to MAX_COST.
+     */
+    public int cost(int v) {
+        return this.costs == null ? 1 : this.costs[v];
+    }
+
+    /**
+     * Sets the terrain cost of a square.
+     * @param v The index of the square.
+     * @param cost The cost of stepping onto the square, from 1 to MAX_COST.
+     */
+    public void setCost(int v, int cost) {
+        if (cost < 1 || cost > MAX_COST) {
+            throw new IllegalStateException("The cost of a square must be between 1 and " + MAX_COST + ".");
+        }
+        int old = cost(v);
+        if (old == cost) {
+            return;
+        }
+        if (this.costs == null) {
+            this.costs = new byte[size()];
+            Arrays.fill(this.costs, (byte)1);
+        }
+        this.numCostly += (cost != 1 ? 1 : 0) - (old != 1 ? 1 : 0);
+        this.costs[v] = (byte)cost;
+        this.version++;
+    }
+
+    /**
+     * Returns true if every square has cost 1.
+     * @return True if the board has uniform costs, false otherwise.
+     */
+    public boolean isUniform() {
+        return this.numCostly == 0;
+    }
+
+    /**
+     * Returns a counter that changes whenever a square is toggled or its cost changes.
+     * Visiting a square does not change it.
+     * @return The version of the board.
+     */
+    public int version() {
+        return this.version;
+    }
+
+    /*********************************************************
+     * 				Private helper methods
+     *********************************************************/
+
+    /**
+     * Returns the number of longs needed to hold the given number of bits.
+     */
+    private static int words(int bits) {
+        return (bits + 63) >>> 6;
+    }
+}
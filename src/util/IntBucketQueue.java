@@ -0,0 +1,231 @@
+package util;
+
+import java.util.Arrays;
+
+/**
+ * A monotone min priority queue of int elements for small integer priorities,
+ * as used by Dial's algorithm.  The queue keeps one bucket for each of the 
+ * maxSpread + 1 priorities from the current minimum upwards, reusing them
+ * circularly as the minimum advances.  Pushes and changes of priority are O(1)
+ * and a pop scans at most maxSpread + 1 buckets, so a shortest path search with
+ * edge weights no larger than maxSpread runs in O(V + E + C).
+ * <br><br>
+ * Every priority in the queue must lie between the last priority popped and 
+ * that priority plus maxSpread.
+ *
+ * @author Tyler Weir
+ */
+public class IntBucketQueue implements IntPriorityQueueIfc {
+    private static final int NONE = -1;
+
+    private final int[] keys;
+    private final int[] next;
+    private final int[] prev;
+    private final boolean[] present;
+    private final int[] heads;
+    private final int maxSpread;
+    private int cursor;
+    private int size;
+
+    /**
+     * Constructs an empty priority queue for the elements 0 to capacity - 1.
+     *
+     * @param capacity The number of distinct elements, usually the vertex count.
+     * @param maxSpread The largest gap between the lowest and highest priority 
+     * in the queue, usually the largest edge weight.
+     */
+    public IntBucketQueue(int capacity, int maxSpread) {
+        if (maxSpread < 0) {
+            throw new IllegalStateException("The spread of priorities must be non-negative.");
+        }
+        this.keys = new int[capacity];
+        this.next = new int[capacity];
+        this.prev = new int[capacity];
+        this.present = new boolean[capacity];
+        this.heads = new int[maxSpread + 1];
+        Arrays.fill(this.heads, NONE);
+        this.maxSpread = maxSpread;
+        this.cursor = 0;
+        this.size = 0;
+    }
+
+    /**
+     *  Insert a new element into the queue with the given priority.
+     *	@param priority priority of element to be inserted, within maxSpread of the last one popped
+     *	@param element element to be inserted
+     */
+    public void push(int priority, int element) {
+        if (this.present[element]) {
+            throw new IllegalStateException("The priority queue already contains the element: " + element);
+        }
+        checkPriority(priority);
+
+        this.keys[element] = priority;
+        this.present[element] = true;
+        insert(element);
+        this.size++;
+    }
+
+    /**
+     *  Remove the highest priority element
+     */
+    public void pop() {
+        if (isEmpty()) {
+            throw new IllegalStateException("The priority queue is empty, cannot pop an element.");
+        }
+
+        remove(this.heads[advance()]);
+        this.size--;
+    }
+
+    /**
+     *  Returns the highest priority in the queue
+     *  @return highest priority value
+     */
+    public int topPriority() {
+        if (isEmpty()) {
+            throw new IllegalStateException("The priority queue is empty. No priority to return.");
+        }
+        advance();
+        return this.cursor;
+    }
+
+    /**
+     *  Returns the element with the highest priority
+     *  @return element with highest priority
+     */
+    public int topElement() {
+        if (isEmpty()) {
+            throw new IllegalStateException("The priority queue is empty. No element to return.");
+        }
+        return this.heads[advance()];
+    }
+
+    /**
+     *  Change the priority of an element already in the priority queue.
+     *  @param element element whose priority is to be changed
+     *  @param newPriority the new priority, within maxSpread of the last one popped
+     */
+    public void changePriority(int element, int newPriority) {
+        if (!contains(element)) {
+            throw new IllegalStateException("The specified element does not exist in the priority queue.");
+        }
+        checkPriority(newPriority);
+
+        remove(element);
+        this.keys[element] = newPriority;
+        this.present[element] = true;
+        insert(element);
+    }
+
+    /**
+     *  Returns true if the element exists in the priority queue.
+     *  @param element the element to look for
+     *  @return true if the element exists, false otherwise
+     */
+    public boolean contains(int element) {
+        return this.present[element];
+    }
+
+    /**
+     *  Returns true if the priority queue contains no elements
+     *  @return true if the queue contains no elements, false otherwise
+     */
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    /**
+     *  Removes all elements from the priority queue and resets the minimum to zero.
+     */
+    public void clear() {
+        for (int b = 0; b < this.heads.length; b++) {
+            for (int x = this.heads[b]; x != NONE; x = this.next[x]) {
+                this.present[x] = false;
+            }
+            this.heads[b] = NONE;
+        }
+        this.cursor = 0;
+        this.size = 0;
+    }
+
+    /**
+     *  Returns the number of elements in the priority queue
+     *  @return number of elements in the priority queue
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     *  Returns the number of distinct elements the queue can hold
+     *  @return the capacity of the queue
+     */
+    public int capacity() {
+        return this.keys.length;
+    }
+
+    /**
+     *  Returns the largest gap the queue allows between its lowest and highest priority
+     *  @return the spread of priorities the queue was built for
+     */
+    public int maxSpread() {
+        return this.maxSpread;
+    }
+
+    /*********************************************************
+     * 				Private helper methods
+     *********************************************************/
+
+    /**
+     * Throws an exception if the priority falls outside of the window of buckets.
+     */
+    private void checkPriority(int priority) {
+        if (priority < this.cursor || priority - this.cursor > this.maxSpread) {
+            throw new IllegalStateException("The priority " + priority + " must lie between " 
+                + this.cursor + " and " + (this.cursor + this.maxSpread) + ".");
+        }
+    }
+
+    /**
+     * Moves the cursor to the lowest priority in the queue.
+     * @return the bucket of that priority
+     */
+    private int advance() {
+        int b = this.cursor % this.heads.length;
+        while (this.heads[b] == NONE) {
+            this.cursor++;
+            b = b + 1 == this.heads.length ? 0 : b + 1;
+        }
+        return b;
+    }
+
+    /**
+     * Adds an element to the front of the bucket of its priority.
+     */
+    private void insert(int x) {
+        int b = this.keys[x] % this.heads.length;
+        int head = this.heads[b];
+        this.next[x] = head;
+        this.prev[x] = NONE;
+        if (head != NONE) {
+            this.prev[head] = x;
+        }
+        this.heads[b] = x;
+    }
+
+    /**
+     * Unlinks an element from its bucket.
+     */
+    private void remove(int x) {
+        if (this.prev[x] != NONE) {
+            this.next[this.prev[x]] = this.next[x];
+        } else {
+            this.heads[this.keys[x] % this.heads.length] = this.next[x];
+        }
+        if (this.next[x] != NONE) {
+            this.prev[this.next[x]] = this.prev[x];
+        }
+        this.present[x] = false;
+    }
+}
@@ -0,0 +1,226 @@
+package util;
+
+import java.util.Arrays;
+
+/**
+ * A min priority queue of int elements implemented as a d-ary heap over primitive
+ * arrays.  A wider heap is shallower, so pushes and decreases of priority take
+ * fewer steps, and the children of a node share a cache line when they are
+ * compared during a pop.  Four children per node is the usual sweet spot.
+ * Priorities cannot be negative.
+ *
+ * @author Tyler Weir
+ */
+public class IntDaryHeap implements IntPriorityQueueIfc {
+    private final int arity;
+    private final int[] heap;
+    private final int[] keys;
+    private final int[] pos;
+    private int size;
+
+    /**
+     * Constructs an empty 4-ary priority queue for the elements 0 to capacity - 1.
+     *
+     * @param capacity The number of distinct elements, usually the vertex count.
+     */
+    public IntDaryHeap(int capacity) {
+        this(capacity, 4);
+    }
+
+    /**
+     * Constructs an empty d-ary priority queue for the elements 0 to capacity - 1.
+     *
+     * @param capacity The number of distinct elements, usually the vertex count.
+     * @param arity The number of children of each node, at least 2.
+     */
+    public IntDaryHeap(int capacity, int arity) {
+        if (arity < 2) {
+            throw new IllegalStateException("A heap needs at least two children per node.");
+        }
+        this.arity = arity;
+        this.heap = new int[capacity];
+        this.keys = new int[capacity];
+        this.pos = new int[capacity];
+        Arrays.fill(this.pos, -1);
+        this.size = 0;
+    }
+
+    /**
+     *  Insert a new element into the queue with the given priority.
+     *	@param priority priority of element to be inserted
+     *	@param element element to be inserted
+     */
+    public void push(int priority, int element) {
+        if (this.pos[element] >= 0) {
+            throw new IllegalStateException("The priority queue already contains the element: " + element);
+        }
+        if (priority < 0) {
+            throw new IllegalStateException("The priority must be non-negative.");
+        }
+
+        this.keys[element] = priority;
+        percolateUp(this.size++, element);
+    }
+
+    /**
+     *  Remove the highest priority element
+     */
+    public void pop() {
+        if (isEmpty()) {
+            throw new IllegalStateException("The priority queue is empty, cannot pop an element.");
+        }
+
+        this.pos[this.heap[0]] = -1;
+        int last = this.heap[--this.size];
+        if (this.size > 0) {
+            percolateDown(0, last);
+        }
+    }
+
+    /**
+     *  Returns the highest priority in the queue
+     *  @return highest priority value
+     */
+    public int topPriority() {
+        if (isEmpty()) {
+            throw new IllegalStateException("The priority queue is empty. No priority to return.");
+        }
+        return this.keys[this.heap[0]];
+    }
+
+    /**
+     *  Returns the element with the highest priority
+     *  @return element with highest priority
+     */
+    public int topElement() {
+        if (isEmpty()) {
+            throw new IllegalStateException("The priority queue is empty. No element to return.");
+        }
+        return this.heap[0];
+    }
+
+    /**
+     *  Change the priority of an element already in the priority queue.
+     *  @param element element whose priority is to be changed
+     *  @param newPriority the new priority
+     */
+    public void changePriority(int element, int newPriority) {
+        if (!contains(element)) {
+            throw new IllegalStateException("The specified element does not exist in the priority queue.");
+        }
+        if (newPriority < 0) {
+            throw new IllegalStateException("The new priority must be non-negative.");
+        }
+
+        int oldPriority = this.keys[element];
+        this.keys[element] = newPriority;
+        if (newPriority < oldPriority) {
+            percolateUp(this.pos[element], element);
+        } else if (newPriority > oldPriority) {
+            percolateDown(this.pos[element], element);
+        }
+    }
+
+    /**
+     *  Returns true if the element exists in the priority queue.
+     *  @param element the element to look for
+     *  @return true if the element exists, false otherwise
+     */
+    public boolean contains(int element) {
+        return this.pos[element] >= 0;
+    }
+
+    /**
+     *  Returns true if the priority queue contains no elements
+     *  @return true if the queue contains no elements, false otherwise
+     */
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    /**
+     *  Removes all elements from the priority queue
+     */
+    public void clear() {
+        for (int k = 0; k < this.size; k++) {
+            this.pos[this.heap[k]] = -1;
+        }
+        this.size = 0;
+    }
+
+    /**
+     *  Returns the number of elements in the priority queue
+     *  @return number of elements in the priority queue
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     *  Returns the number of distinct elements the queue can hold
+     *  @return the capacity of the queue
+     */
+    public int capacity() {
+        return this.pos.length;
+    }
+
+    /*********************************************************
+     * 				Private helper methods
+     *********************************************************/
+
+    /**
+     * Moves the hole at the given index up the heap until the element fits, then
+     * stores the element there.
+     */
+    private void percolateUp(int index, int element) {
+        int priority = this.keys[element];
+        while (index > 0) {
+            int parent = (index - 1) / this.arity;
+            int parentElement = this.heap[parent];
+            if (this.keys[parentElement] <= priority) {
+                break;
+            }
+            this.heap[index] = parentElement;
+            this.pos[parentElement] = index;
+            index = parent;
+        }
+        this.heap[index] = element;
+        this.pos[element] = index;
+    }
+
+    /**
+     * Moves the hole at the given index down the heap until the element fits, then
+     * stores the element there.
+     */
+    private void percolateDown(int index, int element) {
+        int priority = this.keys[element];
+        while (true) {
+            int first = this.arity * index + 1;
+            if (first >= this.size) {
+                break;
+            }
+
+            // Find the smallest child
+            int last = Math.min(first + this.arity, this.size);
+            int child = first;
+            int childPriority = this.keys[this.heap[first]];
+            for (int c = first + 1; c < last; c++) {
+                int p = this.keys[this.heap[c]];
+                if (p < childPriority) {
+                    child = c;
+                    childPriority = p;
+                }
+            }
+
+            if (priority <= childPriority) {
+                break;
+            }
+            int childElement = this.heap[child];
+            this.heap[index] = childElement;
+            this.pos[childElement] = index;
+            index = child;
+        }
+        this.heap[index] = element;
+        this.pos[element] = index;
+    }
+}
@@ -0,0 +1,309 @@
+package util;
+
+import java.util.Arrays;
+
+/**
+ * A min priority queue of int elements in the range [0, capacity), implemented
+ * as a binary heap over primitive arrays.  <code>heap</code> holds the elements
+ * in heap order, <code>keys</code> holds the priority of each element and
+ * <code>pos</code> holds each element's index in the heap, or -1 if the element
+ * is not in the queue.  After construction no operation allocates.
+ * Priorities cannot be negative.
+ * <br><br>
+ * Ties between equal priorities can be broken by a second array of keys owned
+ * by the caller.  The second key of an element must not change while the 
+ * element is in the queue.
+ *
+ * @author Tyler Weir
+ */
+public class IntIndexedMinHeap implements IntPriorityQueueIfc {
+    private final int[] heap;
+    private final int[] keys;
+    private final int[] pos;
+    private final int[] ties;
+    private int size;
+
+    /**
+     * Constructs an empty priority queue for the elements 0 to capacity - 1.
+     *
+     * @param capacity The number of distinct elements, usually the vertex count.
+     */
+    public IntIndexedMinHeap(int capacity) {
+        this(capacity, null);
+    }
+
+    /**
+     * Constructs an empty priority queue for the elements 0 to capacity - 1 that
+     * orders elements of equal priority by their value in ties, lowest first.
+     *
+     * @param capacity The number of distinct elements, usually the vertex count.
+     * @param ties The second key of each element, or null to leave ties unbroken.
+     */
+    public IntIndexedMinHeap(int capacity, int[] ties) {
+        if (ties != null && ties.length < capacity) {
+            throw new IllegalStateException("There must be a second key for every element.");
+        }
+        this.ties = ties;
+        this.heap = new int[capacity];
+        this.keys = new int[capacity];
+        this.pos = new int[capacity];
+        Arrays.fill(this.pos, -1);
+        this.size = 0;
+    }
+
+    /**
+     *  Insert a new element into the queue with the given priority.
+     *
+     *	@param priority priority of element to be inserted
+     *	@param element element to be inserted
+     *	<br><br>
+     *	<b>Preconditions:</b>
+     *	<ul>
+     *	<li> The element does not already appear in the priority queue.</li>
+     *	<li> The priority is non-negative.</li>
+     *	</ul>
+     */
+    public void push(int priority, int element) {
+        if (this.pos[element] >= 0) {
+            throw new IllegalStateException("The priority queue already contains the element: " + element);
+        }
+        if (priority < 0) {
+            throw new IllegalStateException("The priority must be non-negative.");
+        }
+
+        this.keys[element] = priority;
+        percolateUp(this.size++, element);
+    }
+
+    /**
+     *  Remove the highest priority element
+     *  <br><br>
+     *	<b>Preconditions:</b>
+     *	<ul>
+     *	<li> The priority queue is non-empty.</li>
+     *	</ul>
+     */
+    public void pop() {
+        if (isEmpty()) {
+            throw new IllegalStateException("The priority queue is empty, cannot pop an element.");
+        }
+
+        this.pos[this.heap[0]] = -1;
+        int last = this.heap[--this.size];
+        if (this.size > 0) {
+            percolateDown(0, last);
+        }
+    }
+
+    /**
+     *  Returns the highest priority in the queue
+     *  @return highest priority value
+     *  <br><br>
+     *	<b>Preconditions:</b>
+     *	<ul>
+     *	<li> The priority queue is non-empty.</li>
+     *	</ul>
+     */
+    public int topPriority() {
+        if (isEmpty()) {
+            throw new IllegalStateException("The priority queue is empty. No priority to return.");
+        }
+        return this.keys[this.heap[0]];
+    }
+
+    /**
+     *  Returns the element with the highest priority
+     *  @return element with highest priority
+     *  <br><br>
+     *	<b>Preconditions:</b>
+     *	<ul>
+     *	<li> The priority queue is non-empty.</li>
+     *	</ul>
+     */
+    public int topElement() {
+        if (isEmpty()) {
+            throw new IllegalStateException("The priority queue is empty. No element to return.");
+        }
+        return this.heap[0];
+    }
+
+    /**
+     *  Change the priority of an element already in the priority queue.
+     *
+     *  @param element element whose priority is to be changed
+     *  @param newPriority the new priority
+     *  <br><br>
+     *	<b>Preconditions:</b>
+     *	<ul>
+     *	<li> The element exists in the priority queue</li>
+     *	<li> The new priority is non-negative </li>
+     *	</ul>
+     */
+    public void changePriority(int element, int newPriority) {
+        if (!contains(element)) {
+            throw new IllegalStateException("The specified element does not exist in the priority queue.");
+        }
+        if (newPriority < 0) {
+            throw new IllegalStateException("The new priority must be non-negative.");
+        }
+
+        int oldPriority = this.keys[element];
+        this.keys[element] = newPriority;
+        if (newPriority < oldPriority) {
+            percolateUp(this.pos[element], element);
+        } else if (newPriority > oldPriority) {
+            percolateDown(this.pos[element], element);
+        }
+    }
+
+    /**
+     *  Lowers the priority of an element already in the priority queue. This is
+     *  the only change of priority Dijkstra's algorithm needs.
+     *
+     *  @param element element whose priority is to be lowered
+     *  @param newPriority the new priority
+     *  <br><br>
+     *	<b>Preconditions:</b>
+     *	<ul>
+     *	<li> The element exists in the priority queue</li>
+     *	<li> The new priority is non-negative and no greater than the old one</li>
+     *	</ul>
+     */
+    public void decreaseKey(int element, int newPriority) {
+        if (!contains(element)) {
+            throw new IllegalStateException("The specified element does not exist in the priority queue.");
+        }
+        if (newPriority < 0 || newPriority > this.keys[element]) {
+            throw new IllegalStateException("The new priority must be non-negative and no greater than the old one.");
+        }
+
+        this.keys[element] = newPriority;
+        percolateUp(this.pos[element], element);
+    }
+
+    /**
+     *  Gets the priority of the element
+     *
+     *  @param element the element whose priority is returned
+     *  @return the priority value
+     *  <br><br>
+     *	<b>Preconditions:</b>
+     *	<ul>
+     *	<li> The element exists in the priority queue</li>
+     *	</ul>
+     */
+    public int getPriority(int element) {
+        if (!contains(element)) {
+            throw new IllegalStateException(element + " is not contained in the priority queue.");
+        }
+        return this.keys[element];
+    }
+
+    /**
+     *  Returns true if the element exists in the priority queue.
+     *  @param element the element to look for
+     *  @return true if the element exists, false otherwise
+     */
+    public boolean contains(int element) {
+        return this.pos[element] >= 0;
+    }
+
+    /**
+     *  Returns true if the priority queue contains no elements
+     *  @return true if the queue contains no elements, false otherwise
+     */
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    /**
+     *  Removes all elements from the priority queue. This only touches the
+     *  elements still in the queue.
+     */
+    public void clear() {
+        for (int k = 0; k < this.size; k++) {
+            this.pos[this.heap[k]] = -1;
+        }
+        this.size = 0;
+    }
+
+    /**
+     *  Returns the number of elements in the priority queue
+     *  @return number of elements in the priority queue
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     *  Returns the number of distinct elements the queue can hold
+     *  @return the capacity of the queue
+     */
+    public int capacity() {
+        return this.pos.length;
+    }
+
+    /*********************************************************
+     * 				Private helper methods
+     *********************************************************/
+
+    /**
+     * Returns true if element a must come out of the queue strictly before b.
+     */
+    private boolean before(int a, int b) {
+        int ka = this.keys[a];
+        int kb = this.keys[b];
+        if (ka != kb) {
+            return ka < kb;
+        }
+        return this.ties != null && this.ties[a] < this.ties[b];
+    }
+
+    /**
+     * Moves the hole at the given index up the heap until the element fits, then
+     * stores the element there.  Elements are shifted rather than swapped.
+     * @param index the index of the hole
+     * @param element the element to be placed
+     */
+    private void percolateUp(int index, int element) {
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            int parentElement = this.heap[parent];
+            if (!before(element, parentElement)) {
+                break;
+            }
+            this.heap[index] = parentElement;
+            this.pos[parentElement] = index;
+            index = parent;
+        }
+        this.heap[index] = element;
+        this.pos[element] = index;
+    }
+
+    /**
+     * Moves the hole at the given index down the heap until the element fits, then
+     * stores the element there.
+     * @param index the index of the hole
+     * @param element the element to be placed
+     */
+    private void percolateDown(int index, int element) {
+        int half = this.size >>> 1;
+        while (index < half) {
+            int child = 2 * index + 1;
+            int childElement = this.heap[child];
+            int right = child + 1;
+            if (right < this.size && before(this.heap[right], childElement)) {
+                child = right;
+                childElement = this.heap[right];
+            }
+            if (!before(childElement, element)) {
+                break;
+            }
+            this.heap[index] = childElement;
+            this.pos[childElement] = index;
+            index = child;
+        }
+        this.heap[index] = element;
+        this.pos[element] = index;
+    }
+}
@@ -0,0 +1,278 @@
+package util;
+
+import java.util.Arrays;
+
+/**
+ * A min priority queue of int elements implemented as a pairing heap.  The tree
+ * is stored in primitive arrays: <code>child</code> holds the leftmost child of
+ * each node, <code>sibling</code> its right sibling, and <code>prev</code> its
+ * left sibling, or its parent if it is a leftmost child.  Pushes and decreases
+ * of priority cut a subtree and link it to the root in O(1), and pops pay an
+ * amortized O(log n) to pair up the children of the old root.
+ * Priorities cannot be negative.
+ *
+ * @author Tyler Weir
+ */
+public class IntPairingHeap implements IntPriorityQueueIfc {
+    private static final int NONE = -1;
+
+    private final int[] keys;
+    private final int[] child;
+    private final int[] sibling;
+    private final int[] prev;
+    private final boolean[] present;
+    private final int[] buffer;
+    private int root;
+    private int size;
+
+    /**
+     * Constructs an empty priority queue for the elements 0 to capacity - 1.
+     *
+     * @param capacity The number of distinct elements, usually the vertex count.
+     */
+    public IntPairingHeap(int capacity) {
+        this.keys = new int[capacity];
+        this.child = new int[capacity];
+        this.sibling = new int[capacity];
+        this.prev = new int[capacity];
+        this.present = new boolean[capacity];
+        this.buffer = new int[capacity];
+        Arrays.fill(this.child, NONE);
+        Arrays.fill(this.sibling, NONE);
+        Arrays.fill(this.prev, NONE);
+        this.root = NONE;
+        this.size = 0;
+    }
+
+    /**
+     *  Insert a new element into the queue with the given priority.
+     *	@param priority priority of element to be inserted
+     *	@param element element to be inserted
+     */
+    public void push(int priority, int element) {
+        if (this.present[element]) {
+            throw new IllegalStateException("The priority queue already contains the element: " + element);
+        }
+        if (priority < 0) {
+            throw new IllegalStateException("The priority must be non-negative.");
+        }
+
+        this.keys[element] = priority;
+        this.present[element] = true;
+        this.root = this.root == NONE ? element : link(this.root, element);
+        this.size++;
+    }
+
+    /**
+     *  Remove the highest priority element
+     */
+    public void pop() {
+        if (isEmpty()) {
+            throw new IllegalStateException("The priority queue is empty, cannot pop an element.");
+        }
+
+        int top = this.root;
+        this.root = combine(this.child[top]);
+        this.child[top] = NONE;
+        this.present[top] = false;
+        this.size--;
+    }
+
+    /**
+     *  Returns the highest priority in the queue
+     *  @return highest priority value
+     */
+    public int topPriority() {
+        if (isEmpty()) {
+            throw new IllegalStateException("The priority queue is empty. No priority to return.");
+        }
+        return this.keys[this.root];
+    }
+
+    /**
+     *  Returns the element with the highest priority
+     *  @return element with highest priority
+     */
+    public int topElement() {
+        if (isEmpty()) {
+            throw new IllegalStateException("The priority queue is empty. No element to return.");
+        }
+        return this.root;
+    }
+
+    /**
+     *  Change the priority of an element already in the priority queue. Lowering
+     *  the priority takes O(1); raising it is done by removing and reinserting
+     *  the element.
+     *  @param element element whose priority is to be changed
+     *  @param newPriority the new priority
+     */
+    public void changePriority(int element, int newPriority) {
+        if (!contains(element)) {
+            throw new IllegalStateException("The specified element does not exist in the priority queue.");
+        }
+        if (newPriority < 0) {
+            throw new IllegalStateException("The new priority must be non-negative.");
+        }
+
+        int oldPriority = this.keys[element];
+        this.keys[element] = newPriority;
+        if (newPriority < oldPriority) {
+            if (element != this.root) {
+                cut(element);
+                this.root = link(this.root, element);
+            }
+        } else if (newPriority > oldPriority) {
+            // Detach the element, put its children back, then reinsert it alone
+            int rest;
+            if (element == this.root) {
+                rest = combine(this.child[element]);
+            } else {
+                cut(element);
+                int children = combine(this.child[element]);
+                rest = children == NONE ? this.root : link(this.root, children);
+            }
+            this.child[element] = NONE;
+            this.root = rest == NONE ? element : link(rest, element);
+        }
+    }
+
+    /**
+     *  Returns true if the element exists in the priority queue.
+     *  @param element the element to look for
+     *  @return true if the element exists, false otherwise
+     */
+    public boolean contains(int element) {
+        return this.present[element];
+    }
+
+    /**
+     *  Returns true if the priority queue contains no elements
+     *  @return true if the queue contains no elements, false otherwise
+     */
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    /**
+     *  Removes all elements from the priority queue. This walks the remaining tree,
+     *  so it only touches the elements still in the queue.
+     */
+    public void clear() {
+        int top = 0;
+        if (this.root != NONE) {
+            this.buffer[top++] = this.root;
+        }
+        while (top > 0) {
+            int x = this.buffer[--top];
+            if (this.child[x] != NONE) {
+                this.buffer[top++] = this.child[x];
+            }
+            if (this.sibling[x] != NONE) {
+                this.buffer[top++] = this.sibling[x];
+            }
+            this.child[x] = NONE;
+            this.sibling[x] = NONE;
+            this.prev[x] = NONE;
+            this.present[x] = false;
+        }
+        this.root = NONE;
+        this.size = 0;
+    }
+
+    /**
+     *  Returns the number of elements in the priority queue
+     *  @return number of elements in the priority queue
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     *  Returns the number of distinct elements the queue can hold
+     *  @return the capacity of the queue
+     */
+    public int capacity() {
+        return this.keys.length;
+    }
+
+    /*********************************************************
+     * 				Private helper methods
+     *********************************************************/
+
+    /**
+     * Links two detached trees, making the root with the larger priority the
+     * leftmost child of the other.
+     * @return the root of the linked tree
+     */
+    private int link(int a, int b) {
+        if (this.keys[b] < this.keys[a]) {
+            int t = a;
+            a = b;
+            b = t;
+        }
+        int first = this.child[a];
+        this.sibling[b] = first;
+        if (first != NONE) {
+            this.prev[first] = b;
+        }
+        this.prev[b] = a;
+        this.child[a] = b;
+        this.sibling[a] = NONE;
+        this.prev[a] = NONE;
+        return a;
+    }
+
+    /**
+     * Detaches the subtree rooted at x from its parent and siblings.
+     */
+    private void cut(int x) {
+        int p = this.prev[x];
+        int next = this.sibling[x];
+        if (this.child[p] == x) {
+            this.child[p] = next;
+        } else {
+            this.sibling[p] = next;
+        }
+        if (next != NONE) {
+            this.prev[next] = p;
+        }
+        this.sibling[x] = NONE;
+        this.prev[x] = NONE;
+    }
+
+    /**
+     * Combines a list of sibling trees into one with the standard two pass pairing.
+     * @param first the leftmost tree of the list
+     * @return the root of the combined tree, or NONE if the list is empty
+     */
+    private int combine(int first) {
+        if (first == NONE) {
+            return NONE;
+        }
+
+        // First pass: link the trees in pairs from left to right
+        int count = 0;
+        int x = first;
+        while (x != NONE) {
+            int a = x;
+            int b = this.sibling[a];
+            x = b == NONE ? NONE : this.sibling[b];
+            this.sibling[a] = NONE;
+            this.prev[a] = NONE;
+            if (b != NONE) {
+                this.sibling[b] = NONE;
+                this.prev[b] = NONE;
+                a = link(a, b);
+            }
+            this.buffer[count++] = a;
+        }
+
+        // Second pass: link the pairs from right to left
+        int result = this.buffer[--count];
+        while (count > 0) {
+            result = link(this.buffer[--count], result);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,102 @@
+package util;
+
+/**
+ * An interface describing a min priority queue of int elements in the range 
+ * [0, capacity()).  These are the operations Dijkstra's algorithm performs on
+ * its queue, so any implementation can be handed to a search.  Priorities
+ * cannot be negative.
+ *
+ * @author Tyler Weir
+ */
+public interface IntPriorityQueueIfc {
+
+    /**
+     *  Insert a new element into the queue with the given priority.
+     *
+     *	@param priority priority of element to be inserted
+     *	@param element element to be inserted
+     *	<br><br>
+     *	<b>Preconditions:</b>
+     *	<ul>
+     *	<li> The element does not already appear in the priority queue.</li>
+     *	<li> The priority is non-negative.</li>
+     *	</ul>
+     */
+    public void push(int priority, int element);
+
+    /**
+     *  Remove the highest priority element
+     *  <br><br>
+     *	<b>Preconditions:</b>
+     *	<ul>
+     *	<li> The priority queue is non-empty.</li>
+     *	</ul>
+     */
+    public void pop();
+
+    /**
+     *  Returns the highest priority in the queue
+     *  @return highest priority value
+     *  <br><br>
+     *	<b>Preconditions:</b>
+     *	<ul>
+     *	<li> The priority queue is non-empty.</li>
+     *	</ul>
+     */
+    public int topPriority();
+
+    /**
+     *  Returns the element with the highest priority
+     *  @return element with highest priority
+     *  <br><br>
+     *	<b>Preconditions:</b>
+     *	<ul>
+     *	<li> The priority queue is non-empty.</li>
+     *	</ul>
+     */
+    public int topElement();
+
+    /**
+     *  Change the priority of an element already in the priority queue.
+     *
+     *  @param element element whose priority is to be changed
+     *  @param newPriority the new priority
+     *  <br><br>
+     *	<b>Preconditions:</b>
+     *	<ul>
+     *	<li> The element exists in the priority queue</li>
+     *	<li> The new priority is non-negative </li>
+     *	</ul>
+     */
+    public void changePriority(int element, int newPriority);
+
+    /**
+     *  Returns true if the element exists in the priority queue.
+     *  @param element the element to look for
+     *  @return true if the element exists, false otherwise
+     */
+    public boolean contains(int element);
+
+    /**
+     *  Returns true if the priority queue contains no elements
+     *  @return true if the queue contains no elements, false otherwise
+     */
+    public boolean isEmpty();
+
+    /**
+     *  Removes all elements from the priority queue
+     */
+    public void clear();
+
+    /**
+     *  Returns the number of elements in the priority queue
+     *  @return number of elements in the priority queue
+     */
+    public int size();
+
+    /**
+     *  Returns the number of distinct elements the queue can hold
+     *  @return the capacity of the queue
+     */
+    public int capacity();
+}
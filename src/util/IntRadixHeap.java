@@ -0,0 +1,239 @@
+package util;
+
+import java.util.Arrays;
+
+/**
+ * A monotone min priority queue of int elements implemented as a radix heap.
+ * An element with priority p is kept in the bucket numbered by the highest bit
+ * in which p differs from the last priority popped, so each element moves to a
+ * lower bucket at most 32 times over its life in the queue.  Buckets are
+ * doubly linked lists threaded through primitive arrays.
+ * <br><br>
+ * The queue is monotone: no priority may be lower than the last one popped,
+ * which always holds for Dijkstra's algorithm with non-negative weights.
+ *
+ * @author Tyler Weir
+ */
+public class IntRadixHeap implements IntPriorityQueueIfc {
+    private static final int NONE = -1;
+    private static final int BUCKETS = 33;
+
+    private final int[] keys;
+    private final int[] next;
+    private final int[] prev;
+    private final int[] bucket;
+    private final int[] heads;
+    private int last;
+    private int size;
+
+    /**
+     * Constructs an empty priority queue for the elements 0 to capacity - 1.
+     *
+     * @param capacity The number of distinct elements, usually the vertex count.
+     */
+    public IntRadixHeap(int capacity) {
+        this.keys = new int[capacity];
+        this.next = new int[capacity];
+        this.prev = new int[capacity];
+        this.bucket = new int[capacity];
+        this.heads = new int[BUCKETS];
+        Arrays.fill(this.bucket, NONE);
+        Arrays.fill(this.heads, NONE);
+        this.last = 0;
+        this.size = 0;
+    }
+
+    /**
+     *  Insert a new element into the queue with the given priority.
+     *	@param priority priority of element to be inserted, no lower than the last one popped
+     *	@param element element to be inserted
+     */
+    public void push(int priority, int element) {
+        if (contains(element)) {
+            throw new IllegalStateException("The priority queue already contains the element: " + element);
+        }
+        if (priority < this.last) {
+            throw new IllegalStateException("The priority must be no lower than the last priority popped.");
+        }
+
+        this.keys[element] = priority;
+        insert(element);
+        this.size++;
+    }
+
+    /**
+     *  Remove the highest priority element
+     */
+    public void pop() {
+        if (isEmpty()) {
+            throw new IllegalStateException("The priority queue is empty, cannot pop an element.");
+        }
+
+        settle();
+        remove(this.heads[0]);
+        this.size--;
+    }
+
+    /**
+     *  Returns the highest priority in the queue
+     *  @return highest priority value
+     */
+    public int topPriority() {
+        if (isEmpty()) {
+            throw new IllegalStateException("The priority queue is empty. No priority to return.");
+        }
+        settle();
+        return this.last;
+    }
+
+    /**
+     *  Returns the element with the highest priority
+     *  @return element with highest priority
+     */
+    public int topElement() {
+        if (isEmpty()) {
+            throw new IllegalStateException("The priority queue is empty. No element to return.");
+        }
+        settle();
+        return this.heads[0];
+    }
+
+    /**
+     *  Change the priority of an element already in the priority queue.
+     *  @param element element whose priority is to be changed
+     *  @param newPriority the new priority, no lower than the last one popped
+     */
+    public void changePriority(int element, int newPriority) {
+        if (!contains(element)) {
+            throw new IllegalStateException("The specified element does not exist in the priority queue.");
+        }
+        if (newPriority < this.last) {
+            throw new IllegalStateException("The new priority must be no lower than the last priority popped.");
+        }
+
+        remove(element);
+        this.keys[element] = newPriority;
+        insert(element);
+    }
+
+    /**
+     *  Returns true if the element exists in the priority queue.
+     *  @param element the element to look for
+     *  @return true if the element exists, false otherwise
+     */
+    public boolean contains(int element) {
+        return this.bucket[element] != NONE;
+    }
+
+    /**
+     *  Returns true if the priority queue contains no elements
+     *  @return true if the queue contains no elements, false otherwise
+     */
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    /**
+     *  Removes all elements from the priority queue and forgets the last priority
+     *  popped.
+     */
+    public void clear() {
+        for (int b = 0; b < BUCKETS; b++) {
+            for (int x = this.heads[b]; x != NONE; x = this.next[x]) {
+                this.bucket[x] = NONE;
+            }
+            this.heads[b] = NONE;
+        }
+        this.last = 0;
+        this.size = 0;
+    }
+
+    /**
+     *  Returns the number of elements in the priority queue
+     *  @return number of elements in the priority queue
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     *  Returns the number of distinct elements the queue can hold
+     *  @return the capacity of the queue
+     */
+    public int capacity() {
+        return this.keys.length;
+    }
+
+    /*********************************************************
+     * 				Private helper methods
+     *********************************************************/
+
+    /**
+     * Returns the bucket of a priority relative to the last priority popped.
+     */
+    private int bucketOf(int priority) {
+        return priority == this.last ? 0 : 32 - Integer.numberOfLeadingZeros(priority ^ this.last);
+    }
+
+    /**
+     * Adds an element to the front of the bucket of its priority.
+     */
+    private void insert(int x) {
+        int b = bucketOf(this.keys[x]);
+        int head = this.heads[b];
+        this.next[x] = head;
+        this.prev[x] = NONE;
+        if (head != NONE) {
+            this.prev[head] = x;
+        }
+        this.heads[b] = x;
+        this.bucket[x] = b;
+    }
+
+    /**
+     * Unlinks an element from its bucket.
+     */
+    private void remove(int x) {
+        int b = this.bucket[x];
+        if (this.prev[x] != NONE) {
+            this.next[this.prev[x]] = this.next[x];
+        } else {
+            this.heads[b] = this.next[x];
+        }
+        if (this.next[x] != NONE) {
+            this.prev[this.next[x]] = this.prev[x];
+        }
+        this.bucket[x] = NONE;
+    }
+
+    /**
+     * Makes sure bucket 0 holds the elements with the lowest priority. If it is
+     * empty, the lowest non-empty bucket is redistributed around its minimum.
+     */
+    private void settle() {
+        if (this.heads[0] != NONE) {
+            return;
+        }
+
+        int b = 1;
+        while (this.heads[b] == NONE) {
+            b++;
+        }
+
+        // The minimum of the bucket becomes the new last priority
+        int min = Integer.MAX_VALUE;
+        for (int x = this.heads[b]; x != NONE; x = this.next[x]) {
+            min = Math.min(min, this.keys[x]);
+        }
+        this.last = min;
+
+        // Every element of the bucket now falls into a lower one
+        int x = this.heads[b];
+        this.heads[b] = NONE;
+        while (x != NONE) {
+            int following = this.next[x];
+            insert(x);
+            x = following;
+        }
+    }
+}
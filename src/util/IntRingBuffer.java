@@ -0,0 +1,116 @@
+package util;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A bounded first in, first out queue of ints for exactly one producer thread and
+ * one consumer thread.  The two threads never lock: each owns one of the two
+ * counters, publishes it with an ordered write and only reads the other's when
+ * its cached copy says the buffer looks full or empty.  The capacity is rounded
+ * up to a power of two so a counter maps to its slot with a mask.  Neither side
+ * ever waits; a full buffer turns the element away and leaves it to the
+ * producer to decide what to do with it.
+ * <br><br>
+ * The visualizer uses it to hand visited squares from the search thread to the
+ * renderer, and spills what does not fit into an {@link AtomicBitSet}.
+ *
+ * @author Tyler Weir
+ */
+public class IntRingBuffer {
+    private final int[] slots;
+    private final int mask;
+    // Next slot to read, written only by the consumer
+    private final AtomicLong head = new AtomicLong();
+    // Next slot to write, written only by the producer
+    private final AtomicLong tail = new AtomicLong();
+    // The producer's last look at head and the consumer's last look at tail
+    private long headCache;
+    private long tailCache;
+
+    /**
+     * Constructs an empty buffer.
+     *
+     * @param capacity The least number of elements the buffer can hold.
+     */
+    public IntRingBuffer(int capacity) {
+        if (capacity <= 0 || capacity > 1 << 30) {
+            throw new IllegalStateException("The capacity must be between 1 and 2^30.");
+        }
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) {
+            size <<= 1;
+        }
+        this.slots = new int[size];
+        this.mask = size - 1;
+    }
+
+    /**
+     * Adds an element if there is room.  Only the producer may call this, and
+     * it never waits.
+     *
+     * @param element The element to add.
+     * @return True if the element was added, false if the buffer is full.
+     */
+    public boolean offer(int element) {
+        long t = this.tail.get();
+        if (t - this.headCache == this.slots.length) {
+            this.headCache = this.head.get();
+            if (t - this.headCache == this.slots.length) {
+                return false;
+            }
+        }
+        this.slots[(int)t & this.mask] = element;
+        this.tail.lazySet(t + 1);
+        return true;
+    }
+
+    /**
+     * Removes up to max elements in the order they were added.  Only the
+     * consumer may call this.
+     *
+     * @param out The array the elements are copied into, from index 0.
+     * @param max The most elements to remove, at most out.length.
+     * @return The number of elements removed.
+     */
+    public int drain(int[] out, int max) {
+        long h = this.head.get();
+        if (this.tailCache - h < max) {
+            this.tailCache = this.tail.get();
+        }
+        int n = (int)Math.min(max, this.tailCache - h);
+        for (int k = 0; k < n; k++) {
+            out[k] = this.slots[(int)(h + k) & this.mask];
+        }
+        this.head.lazySet(h + n);
+        return n;
+    }
+
+    /**
+     * Returns the number of elements in the buffer.  The answer may be stale by
+     * the time it returns if either thread is active.
+     *
+     * @return The number of elements waiting to be removed.
+     */
+    public int size() {
+        long h = this.head.get();
+        return (int)(this.tail.get() - h);
+    }
+
+    /**
+     * Returns true if the buffer holds no elements.
+     *
+     * @return True if the buffer is empty, false otherwise.
+     */
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * Returns the number of elements the buffer can hold.
+     *
+     * @return The capacity of the buffer.
+     */
+    public int capacity() {
+        return this.slots.length;
+    }
+}
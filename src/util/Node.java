@@ -1,54 +1,113 @@
 package util;
 
 /**
- * This class represents a node in a graph. The node may be set active 
+ * This class represents a node in a graph. The node may be set active
  * or inactive.  The Node also as a boolean field to tell if the node has
- * been visited or discoverd.  
- * 
+ * been visited or discoverd.  Each node has a terrain cost, the price of
+ * stepping onto it, which starts at 1.
+ * <br><br>
+ * A node is a lightweight view of one square of a {@link Board}; its state
+ * lives in the board's bitsets, so views can be created and dropped freely.
+ * Two views of the same square of the same board are equal, so a fresh view
+ * finds the square's entry in a map or a graph.
+ *
  * @author Tyler Weir
  */
 public class Node {
-    private boolean visited;
-    private boolean isActive;
-    
+    private final Board board;
+    private final int index;
+
     /**
-     * Default constructor.  Nodes will be initialized as active and unvisited. 
+     * Default constructor.  Nodes will be initialized as active and unvisited.
+     * The node is backed by a board of its own.
      */
     public Node() {
-        this.visited = false;
-        this.isActive = true;
+        this(new Board(1, 1), 0);
+    }
+
+    /**
+     * Constructs a view of a square of a board.
+     *
+     * @param board The board that holds the state of the square.
+     * @param index The index of the square, i * width + j.
+     */
+    public Node(Board board, int index) {
+        this.board = board;
+        this.index = index;
     }
 
     /**
      * Returns the active state of the node.  True if the node is active,
      * false if the node is not active.
-     * 
+     *
      * @return isActive True if the node is active, false otherwise.
      */
     public boolean isActive() {
-        return this.isActive;
+        return this.board.isActive(this.index);
     }
 
     /**
-     * Toggles the state of the node from active to inactive and vise versa. 
+     * Toggles the state of the node from active to inactive and vise versa.
      */
     public void toggleState() {
-        this.isActive = !this.isActive;
+        this.board.toggle(this.index);
+    }
+
+    /**
+     * Returns the terrain cost of the node.
+     *
+     * @return cost The cost of stepping onto the node.
+     */
+    public int getCost() {
+        return this.board.cost(this.index);
+    }
+
+    /**
+     * Sets the terrain cost of the node.
+     *
+     * @param cost The cost of stepping onto the node, from 1 to Board.MAX_COST.
+     */
+    public void setCost(int cost) {
+        this.board.setCost(this.index, cost);
     }
 
     /**
      * Marks the node as visited.
      */
     public void visit() {
-        this.visited = true;
+        this.board.visit(this.index);
     }
 
     /**
-     * Returns the visited state of the node.  
-     * 
-     * @return isVisited Returns true if the node has been visited, false if not. 
+     * Returns the visited state of the node.
+     *
+     * @return isVisited Returns true if the node has been visited, false if not.
      */
     public boolean isVisited() {
-        return this.visited;
+        return this.board.isVisited(this.index);
+    }
+
+    /**
+     * Returns true if the other object is a view of the same square of the
+     * same board.  Boards are compared by identity, not by their contents.
+     *
+     * @param other The object to compare with.
+     * @return True if both are views of one square, false otherwise.
+     */
+    public boolean equals(Object other) {
+        if (!(other instanceof Node)) {
+            return false;
+        }
+        Node node = (Node)other;
+        return this.board == node.board && this.index == node.index;
+    }
+
+    /**
+     * Returns a hash code consistent with equals.
+     *
+     * @return The hash code of the square and its board.
+     */
+    public int hashCode() {
+        return 31 * System.identityHashCode(this.board) + this.index;
     }
 }
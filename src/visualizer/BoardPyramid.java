@@ -0,0 +1,221 @@
+package visualizer;
+
+import java.util.Arrays;
+
+import util.Board;
+
+/**
+ * A pyramid of summaries of a board, used to draw a zoomed out view where each
+ * pixel covers many squares.  Level k splits the board into blocks of 2^k by 2^k
+ * squares and keeps, for each block, how many of its squares are visited and
+ * how many are blocked.  Only levels from BASE_LEVEL up are stored, so the
+ * pyramid takes about a fiftieth of an int per square; smaller regions are
+ * counted straight from the board's bits.
+ * <br><br>
+ * The pyramid is kept up to date incrementally. A visit adds one to a block at
+ * each level, and a toggled square recounts its base block and passes the
+ * difference up.
+ *
+ * @author Tyler Weir
+ */
+class BoardPyramid {
+    static final int BASE_LEVEL = 3;
+
+    private final Board board;
+    private final int width;
+    private final int height;
+    // The counts of level BASE_LEVEL + k, stored row by row
+    private final int[][] visited;
+    private final int[][] blocked;
+    private final int[] columns;
+
+    /**
+     * Constructs the pyramid of a board and counts its squares.
+     *
+     * @param board The board to summarize.
+     */
+    BoardPyramid(Board board) {
+        this.board = board;
+        this.width = board.width();
+        this.height = board.height();
+
+        int levels = 1;
+        while ((this.width - 1) >> (BASE_LEVEL + levels - 1) > 0 || (this.height - 1) >> (BASE_LEVEL + levels - 1) > 0) {
+            levels++;
+        }
+        this.visited = new int[levels][];
+        this.blocked = new int[levels][];
+        this.columns = new int[levels];
+        for (int k = 0; k < levels; k++) {
+            int shift = BASE_LEVEL + k;
+            this.columns[k] = ((this.width - 1) >> shift) + 1;
+            int rows = ((this.height - 1) >> shift) + 1;
+            this.visited[k] = new int[this.columns[k] * rows];
+            this.blocked[k] = new int[this.columns[k] * rows];
+        }
+        rebuild();
+    }
+
+    /**
+     * Recounts every block from the board.
+     */
+    void rebuild() {
+        int[] v = this.visited[0];
+        int[] b = this.blocked[0];
+        Arrays.fill(v, 0);
+        Arrays.fill(b, 0);
+        for (int i = 0; i < this.height; i++) {
+            int row = (i >> BASE_LEVEL) * this.columns[0];
+            for (int j = 0; j < this.width; j++) {
+                int cell = i * this.width + j;
+                int block = row + (j >> BASE_LEVEL);
+                if (this.board.isVisited(cell)) {
+                    v[block]++;
+                }
+                if (!this.board.isActive(cell)) {
+                    b[block]++;
+                }
+            }
+        }
+
+        for (int k = 1; k < this.visited.length; k++) {
+            Arrays.fill(this.visited[k], 0);
+            Arrays.fill(this.blocked[k], 0);
+            for (int block = 0; block < this.visited[k - 1].length; block++) {
+                int parent = parent(k, block);
+                this.visited[k][parent] += this.visited[k - 1][block];
+                this.blocked[k][parent] += this.blocked[k - 1][block];
+            }
+        }
+    }
+
+    /**
+     * Counts a square that was just marked visited. The square must not have
+     * been visited before.
+     *
+     * @param v The index of the square.
+     */
+    void visit(int v) {
+        add(this.visited, v / this.width, v % this.width, 1);
+    }
+
+    /**
+     * Recounts the base block of a square after it was toggled or its visited
+     * mark changed in some other way.
+     *
+     * @param v The index of the square.
+     */
+    void update(int v) {
+        int i = v / this.width;
+        int j = v % this.width;
+        int i0 = i >> BASE_LEVEL << BASE_LEVEL;
+        int j0 = j >> BASE_LEVEL << BASE_LEVEL;
+        int block = (i >> BASE_LEVEL) * this.columns[0] + (j >> BASE_LEVEL);
+
+        int numVisited = 0, numBlocked = 0;
+        for (int a = i0; a < Math.min(this.height, i0 + (1 << BASE_LEVEL)); a++) {
+            for (int b = j0; b < Math.min(this.width, j0 + (1 << BASE_LEVEL)); b++) {
+                int cell = a * this.width + b;
+                if (this.board.isVisited(cell)) {
+                    numVisited++;
+                }
+                if (!this.board.isActive(cell)) {
+                    numBlocked++;
+                }
+            }
+        }
+        add(this.visited, i, j, numVisited - this.visited[0][block]);
+        add(this.blocked, i, j, numBlocked - this.blocked[0][block]);
+    }
+
+    /**
+     * Forgets every visit, to match Board.clearVisited.
+     */
+    void clearVisited() {
+        for (int[] level : this.visited) {
+            Arrays.fill(level, 0);
+        }
+    }
+
+    /**
+     * Counts the squares of rows i0 to i1 - 1 and columns j0 to j1 - 1. Large
+     * regions are counted from the coarsest level whose blocks are at most half
+     * the region's size, rounding the region out to whole blocks.
+     *
+     * @param i0 The first row.
+     * @param j0 The first column.
+     * @param i1 One past the last row.
+     * @param j1 One past the last column.
+     * @param out Receives the number of visited squares, blocked squares and
+     * squares in all, in that order.
+     */
+    void count(int i0, int j0, int i1, int j1, int[] out) {
+        i0 = Math.max(0, i0);
+        j0 = Math.max(0, j0);
+        i1 = Math.min(this.height, i1);
+        j1 = Math.min(this.width, j1);
+        out[0] = out[1] = out[2] = 0;
+        if (i0 >= i1 || j0 >= j1) {
+            return;
+        }
+
+        int side = Math.min(i1 - i0, j1 - j0);
+        int level = 31 - Integer.numberOfLeadingZeros(side) - 1;
+        if (level < BASE_LEVEL) {
+            for (int i = i0; i < i1; i++) {
+                for (int j = j0; j < j1; j++) {
+                    int cell = i * this.width + j;
+                    if (this.board.isVisited(cell)) {
+                        out[0]++;
+                    }
+                    if (!this.board.isActive(cell)) {
+                        out[1]++;
+                    }
+                }
+            }
+            out[2] = (i1 - i0) * (j1 - j0);
+            return;
+        }
+
+        int k = Math.min(level - BASE_LEVEL, this.visited.length - 1);
+        int shift = BASE_LEVEL + k;
+        int bi0 = i0 >> shift, bi1 = (i1 - 1) >> shift;
+        int bj0 = j0 >> shift, bj1 = (j1 - 1) >> shift;
+        for (int bi = bi0; bi <= bi1; bi++) {
+            for (int bj = bj0; bj <= bj1; bj++) {
+                int block = bi * this.columns[k] + bj;
+                out[0] += this.visited[k][block];
+                out[1] += this.blocked[k][block];
+            }
+        }
+        int rows = Math.min(this.height, (bi1 + 1) << shift) - (bi0 << shift);
+        int cols = Math.min(this.width, (bj1 + 1) << shift) - (bj0 << shift);
+        out[2] = rows * cols;
+    }
+
+    /*********************************************************
+     * 				Private helper methods
+     *********************************************************/
+
+    /**
+     * Adds delta to the block holding square (i, j) at every level.
+     */
+    private void add(int[][] counts, int i, int j, int delta) {
+        if (delta == 0) {
+            return;
+        }
+        for (int k = 0; k < counts.length; k++) {
+            int shift = BASE_LEVEL + k;
+            counts[k][(i >> shift) * this.columns[k] + (j >> shift)] += delta;
+        }
+    }
+
+    /**
+     * Returns the block of level k that holds the given block of level k - 1.
+     */
+    private int parent(int k, int block) {
+        int i = block / this.columns[k - 1];
+        int j = block % this.columns[k - 1];
+        return (i >> 1) * this.columns[k] + (j >> 1);
+    }
+}
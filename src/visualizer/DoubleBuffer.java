@@ -14,6 +14,7 @@ public class DoubleBuffer extends Canvas {
     private int bufferHeight;
     private Image bufferImage;
     private Graphics bufferGraphics;
+    private volatile boolean redrawAll = true;
 
     public DoubleBuffer() {
         super();
@@ -32,12 +33,21 @@ public class DoubleBuffer extends Canvas {
         resetBuffer();
 
         if(bufferGraphics!=null){
-            //this clears the offscreen image, not the onscreen one
-            bufferGraphics.clearRect(0,0,bufferWidth,bufferHeight);
+            //the offscreen image is kept between paints, so it is only
+            //cleared and fully repainted after a resize or a redrawAll,
+            //otherwise only the parts that changed are painted over it
+            if(redrawAll){
+                redrawAll=false;
 
-            //calls the paintbuffer method with
-            //the offscreen graphics as a param
-            paintBuffer(bufferGraphics);
+                //this clears the offscreen image, not the onscreen one
+                bufferGraphics.clearRect(0,0,bufferWidth,bufferHeight);
+
+                //calls the paintbuffer method with
+                //the offscreen graphics as a param
+                paintBuffer(bufferGraphics);
+            } else {
+                paintChanges(bufferGraphics);
+            }
 
             //we finaly paint the offscreen image onto the onscreen image
             g.drawImage(bufferImage,0,0,this);
@@ -58,11 +68,19 @@ public class DoubleBuffer extends Canvas {
             bufferImage.flush();
             bufferImage=null;
         }
-        System.gc();
-
         //    create the new image with the size of the panel
         bufferImage=createImage(bufferWidth,bufferHeight);
         bufferGraphics=bufferImage.getGraphics();
+        redrawAll=true;
+    }
+
+    /**
+     * Asks for the whole offscreen image to be repainted with paintBuffer
+     * on the next paint, then schedules that paint.
+     */
+    public void redrawAll(){
+        redrawAll=true;
+        repaint();
     }
 
     public void paintBuffer(Graphics g){
@@ -70,4 +88,12 @@ public class DoubleBuffer extends Canvas {
     //always remember, g is the offscreen graphics
     }
 
+    public void paintChanges(Graphics g){
+    //classes that know what changed since the last paint override this
+    //and paint only those parts over the previous image, by default
+    //everything is repainted
+        g.clearRect(0,0,bufferWidth,bufferHeight);
+        paintBuffer(g);
+    }
+
 }
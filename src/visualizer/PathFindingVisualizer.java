@@ -2,10 +2,12 @@ package visualizer;
 
 import java.awt.*;
 import java.awt.event.*;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
 import java.util.*;
 import graph.*;
+import search.*;
 import util.*;
-import util.PriorityQueue;
 
 /**
  *  This class creates the window frame that holds the application UI.
@@ -21,6 +23,15 @@ public class PathFindingVisualizer extends Frame{
      * Defualt constructor.
      */
     public PathFindingVisualizer() {
+        this(100);
+    }
+
+    /**
+     * Constructs the window with a grid of the given size.
+     * 
+     * @param gridSize The number of squares along each side of the grid.
+     */
+    public PathFindingVisualizer(int gridSize) {
         // Init up the graphical ui
         super("Path Finding Algorithm Visualizer");
         addWindowListener(new WindowAdapter() {
@@ -28,28 +39,59 @@ public class PathFindingVisualizer extends Frame{
         });
         setSize(500, 500);
         setResizable(true);
-        this.appCanvas = new CvApp();
+        this.appCanvas = new CvApp(gridSize);
         add("Center", this.appCanvas);
         setCursor(Cursor.getPredefinedCursor(Cursor.CROSSHAIR_CURSOR));
         setVisible(true);
     }
 
     public static void main(String[] args) {
-        PathFindingVisualizer pfv = new PathFindingVisualizer();
+        int gridSize = 100;
+        if (args.length > 0) {
+            try {
+                gridSize = Integer.parseInt(args[0]);
+            } catch (NumberFormatException e) {
+                gridSize = 0;
+            }
+            if (gridSize <= 0) {
+                System.out.println("usage: java visualizer.PathFindingVisualizer [grid size]");
+                return;
+            }
+        }
+        PathFindingVisualizer pfv = new PathFindingVisualizer(gridSize);
         System.out.println("========== Welcome to Pathfinding Visualizer ==========");
         System.out.println(" - left mouse click to toggle squares");
+        System.out.println(" - shift + left mouse click to cycle the terrain cost of a square");
         System.out.println(" - right mouse click to set starting square");
+        System.out.println(" - middle mouse click to set target square");
+        System.out.println(" - + and - to speed up or slow down the animation");
+        System.out.println(" - r to switch between drawing squares and drawing pixels");
+        System.out.println(" - mouse wheel to zoom, arrow keys to pan, 0 to show the whole grid");
         System.out.println();
         System.out.println("[Option 1] Depth First Search");
         System.out.println("[Option 2] Breadth First Search");
         System.out.println("[Option 3] Dijkstra's Algorithm");
+        System.out.println("[Option 4] A* Search");
+        System.out.println("[Option 5] Bidirectional Breadth First Search");
+        System.out.println("[Option 6] Bidirectional Dijkstra's Algorithm");
         System.out.println();
-        System.out.print("Chose an algorithm to visualize (1-3): ");
         Scanner userInput = new Scanner(System.in);
 
-        pfv.appCanvas.runAlgorithm(userInput.nextInt());
+        // The board may be edited between runs, and each run starts from a clean board
+        while (true) {
+            System.out.print("Chose an algorithm to visualize (1-6, 0 to quit): ");
+            if (!userInput.hasNextInt()) {
+                break;
+            }
+            int n = userInput.nextInt();
+            if (n == 0) {
+                break;
+            }
+            pfv.appCanvas.runAlgorithm(n);
+        }
 
         userInput.close();
+        System.exit(0);
     }
 }
 
@@ -59,234 +101,471 @@ public class PathFindingVisualizer extends Frame{
  * a path finding algorithm to explore the grid as though each square were vertex 
  * in a graph. Each square is connected to its adjacent squares. Squares may be turned 
  * off and on by clicking on them. The green square is the starting position of the algorithms. 
- * The greeen square position may be set by right clicking. 
+ * The greeen square position may be set by right clicking. The blue square is the optional 
+ * target, set by middle clicking. With a target the algorithm stops once it reaches it and 
+ * the path is drawn in yellow. Shift clicking a square cycles its terrain cost, and 
+ * costlier squares are drawn darker.
+ * <br><br>
+ * The search runs at full speed and publishes each square it visits into a
+ * bounded ring buffer. When the ring is full the square is spilled into a set
+ * with one bit per square, and later squares follow it there until the timer has
+ * emptied the set, so the ring never overtakes them. A timer drains a batch of
+ * squares every frame, from the ring first and then from the set, marks them and
+ * repaints once. The playback speed is set by the batch size, the search never
+ * waits on the UI, and the memory in flight never exceeds the ring and the set.
+ * <br><br>
+ * Painting is incremental. Every change to a square records it in a dirty list,
+ * and a paint draws only the listed squares over the previous image. The whole
+ * grid is drawn only when the window is resized or a new run clears the board.
+ * <br><br>
+ * The view can be zoomed and panned, and only the visible squares are drawn.
+ * When squares are smaller than a few pixels the view is drawn in raster mode
+ * instead. While a square still spans a pixel or more, each visible square is
+ * one pixel of an image that is scaled up to the window. Once a pixel covers
+ * several squares, each pixel of a window sized image is written straight
+ * through its int array, and its colour blends the fraction of the squares it
+ * covers that are visited and blocked, read from a {@link BoardPyramid}, so
+ * grids of hundreds of millions of squares stay interactive.
  * 
  * @author Tyler Weir
  */
 class CvApp extends DoubleBuffer {
     int centerX, centerY;
     float pixelSize, rWidth = 10.0F, rHeight = 10.0F;
-    Node[][] board;
-    Node starterNode;
-    int gridSize = 100;
-    boolean isRunning;
+    // The viewport, as a magnification and the logical point at the center of the window
+    float zoom = 1.0F, viewX, viewY;
+    Board board;
+    GridGraph grid;
+    int starterCell;
+    int targetCell;
+    int[] path;
+    volatile BitSet pathCells;
+    // The squares of pathCells in increasing order
+    volatile int[] pathSorted;
+    GraphSearch[] searches;
+    int gridSize;
+    volatile boolean isRunning;
+    volatile boolean rasterMode;
+    boolean drawingRaster;
+    // True while a pixel covers several squares and the view is drawn from the pyramid
+    boolean blending;
+    // One pixel for each visible square, for raster mode at a pixel or more a square
+    BufferedImage cells;
+    int[] cellPixels;
+    int cellRow, cellColumn, cellRows, cellColumns;
+    // A window sized image, for raster mode below a pixel a square
+    BufferedImage raster;
+    int[] rasterPixels;
+    BoardPyramid pyramid;
+    int[] counts;
+
+    // Visited squares travel from the search thread to the frame timer through the
+    // ring, and through the spill set while the ring is full
+    IntRingBuffer visits;
+    AtomicBitSet spill;
+    int[] frameBatch;
+    long published;
+    volatile long played;
+    volatile int speed;
+    Timer frames;
+
+    // Squares whose colour changed since the last paint, guarded by dirtyLock
+    final Object dirtyLock = new Object();
+    BitSet dirtyCells;
+    int[] dirtyList;
+    int[] paintList;
+    int numDirty;
+    boolean dirtyOverflow;
+    int rectSize;
+
+    // The terrain costs a square cycles through, cheapest first
+    static final int[] TERRAIN_COSTS = {1, 3, Board.MAX_COST};
+
+    static final int FRAMES_PER_SECOND = 60;
+    // The most squares revealed in a single frame
+    static final int MAX_SPEED = 1 << 16;
+    // The most visited squares the ring to the frame timer holds
+    static final int VISIT_CAPACITY = 1 << 20;
+    // The most squares remembered as dirty, past which the next paint draws everything
+    static final int DIRTY_CAPACITY = 1 << 18;
+    // Squares drawn smaller than this many pixels are drawn in raster mode
+    static final int MIN_SQUARE_PIXELS = 4;
+    // The fewest squares across the window when zoomed all the way in
+    static final int MIN_VIEW_SQUARES = 8;
+    static final float ZOOM_STEP = 1.25F;
 
-    // Default constructor
-    CvApp() {
+    /**
+     * Constructs the canvas with a grid of the given size.
+     * 
+     * @param gridSize The number of squares along each side of the grid.
+     */
+    CvApp(int gridSize) {
         this.isRunning = false;
-
-        // Generate Board
-        this.board = new Node[gridSize][gridSize];
-        for (int i = 0; i < gridSize; i++) {
-            for (int j = 0; j < gridSize; j++) {
-                this.board[i][j] = new Node();
-            }
-        }
-
-        this.starterNode = this.board[0][0];
+        this.gridSize = gridSize;
+        this.rasterMode = false;
+
+        // Generate Board, the grid graph reads its squares directly
+        this.board = new Board(gridSize, gridSize);
+        this.grid = new GridGraph(this.board);
+        this.starterCell = 0;
+        this.targetCell = -1;
+        this.path = GraphSearch.NO_PATH;
+        this.pathCells = new BitSet();
+        this.pathSorted = new int[0];
+        this.searches = new GraphSearch[7];
+        this.dirtyCells = new BitSet(this.board.size());
+        this.dirtyList = new int[Math.min(this.board.size(), DIRTY_CAPACITY)];
+        this.paintList = new int[this.dirtyList.length];
+        this.pyramid = new BoardPyramid(this.board);
+        this.counts = new int[3];
+        this.visits = new IntRingBuffer(Math.min(this.board.size(), VISIT_CAPACITY));
+        this.spill = new AtomicBitSet(this.board.size());
+        this.frameBatch = new int[4096];
+        this.speed = 4;
 
         addMouseListener(new MouseAdapter() {
             public void mousePressed(MouseEvent evt) {
+                requestFocus();
+
                 // If the simulation is not running then change the state of the clicked square
                 if(!isRunning) {
                     float xP = fx(evt.getX()); 
                     float yP = fy(evt.getY());
-                    
-                    float rectSize = 10F/gridSize;
 
                     // Calculate which square was hit
-                    int i = (int)Math.floor((double)(5f - yP)/rectSize);
-                    int j = (-1) * (int)Math.floor((double)(-5f - xP)/rectSize) - 1;
+                    int i = row(yP);
+                    int j = column(xP);
 
                     if (i >= 0 && i < gridSize && j >= 0 && j < gridSize) {
-                        if (evt.getButton() == MouseEvent.BUTTON1){
-                            if (board[i][j] != starterNode) {
-                                board[i][j].toggleState();
+                        int v = board.index(i, j);
+                        int oldStarter = starterCell;
+                        int oldTarget = targetCell;
+                        if (evt.getButton() == MouseEvent.BUTTON1 && evt.isShiftDown()) {
+                            if (board.isActive(v)) {
+                                board.setCost(v, nextCost(board.cost(v)));
+                            }
+                        } else if (evt.getButton() == MouseEvent.BUTTON1){
+                            if (v != starterCell && v != targetCell) {
+                                board.toggle(v);
+                                pyramid.update(v);
                             }
                         }
                         if (evt.getButton() == MouseEvent.BUTTON3){
-                            if(board[i][j].isActive()) {
-                                starterNode = board[i][j];
+                            if(board.isActive(v)) {
+                                starterCell = v;
+                            }
+                        }
+                        if (evt.getButton() == MouseEvent.BUTTON2){
+                            if(board.isActive(v) && v != starterCell) {
+                                targetCell = v;
                             }
                         }
+
+                        // Only the clicked square and the old start and target can change colour
+                        markDirty(v);
+                        markDirty(oldStarter);
+                        if (oldTarget >= 0) {
+                            markDirty(oldTarget);
+                        }
+                        repaint();
                     }
-                    repaint();
                 }
             }
         });
-    }
 
-    /**
-     * Builds a graph from the state of the squares in the grid. Black 
-     * squares are considered inactive and will not have a vertex represenation.
-     * 
-     * @return A graph of nodes.
-     */
-    Graph<Node> buildGraph() {
-        Graph<Node> graph = new Graph<Node>();
-
-        for (int i = 0; i < gridSize; i++) {
-            for (int j = 0; j < gridSize; j++) {
-
-                if (board[i][j].isActive()) {
-                    graph.addVertex(board[i][j]);
-
-                    if (i > 0 && board[i-1][j].isActive()) {
-                        // Add edge to node above
-                        graph.addEdge(board[i][j], board[i-1][j]);
-                        graph.addEdge(board[i-1][j], board[i][j]);
-                    }
+        addKeyListener(new KeyAdapter() {
+            public void keyTyped(KeyEvent evt) {
+                char c = evt.getKeyChar();
+                if (c == '+' || c == '=') {
+                    setSpeed(speed * 2);
+                } else if (c == '-') {
+                    setSpeed(speed / 2);
+                } else if (c == 'r') {
+                    rasterMode = !rasterMode;
+                    redrawAll();
+                } else if (c == '0') {
+                    setView(1.0F, 0, 0);
+                }
+            }
 
-                    if (j > 0 && board[i][j-1].isActive()) {
-                        // Add edge to node behind
-                        graph.addEdge(board[i][j], board[i][j-1]);
-                        graph.addEdge(board[i][j-1], board[i][j]);
-                    }
+            public void keyPressed(KeyEvent evt) {
+                // Pan by an eighth of the view
+                float step = rWidth / zoom / 8;
+                switch (evt.getKeyCode()) {
+                    case KeyEvent.VK_LEFT:
+                        setView(zoom, viewX - step, viewY);
+                        break;
+                    case KeyEvent.VK_RIGHT:
+                        setView(zoom, viewX + step, viewY);
+                        break;
+                    case KeyEvent.VK_UP:
+                        setView(zoom, viewX, viewY + step);
+                        break;
+                    case KeyEvent.VK_DOWN:
+                        setView(zoom, viewX, viewY - step);
+                        break;
+                    default:
                 }
             }
-        }
+        });
 
-        return graph;
-    }
+        addMouseWheelListener(new MouseWheelListener() {
+            public void mouseWheelMoved(MouseWheelEvent evt) {
+                // Zoom about the point under the cursor so it stays in place
+                float x = fx(evt.getX());
+                float y = fy(evt.getY());
+                float newZoom = zoom * (float)Math.pow(ZOOM_STEP, -evt.getPreciseWheelRotation());
+                newZoom = Math.max(1.0F, Math.min(maxZoom(), newZoom));
+                float scale = zoom / newZoom;
+                setView(newZoom, x + (viewX - x) * scale, y + (viewY - y) * scale);
+            }
+        });
 
+        this.frames = new Timer("playback", true);
+        this.frames.scheduleAtFixedRate(new TimerTask() {
+            public void run() {
+                playFrame();
+            }
+        }, 0, 1000 / FRAMES_PER_SECOND);
+    }
 
     /**
-     * This function starts the specified algorithm at the starter node.
+     * This function starts the specified algorithm at the starter node. If a target
+     * square is set the algorithm stops once it reaches the target and the path is
+     * shown. The marks of the previous run are cleared first. Each search is built 
+     * once and reused, since its scratch state is reset in O(1) at the start of a run.
+     * The method returns once the animation has caught up with the search.
      * 
-     * @param n The indicated algorithm. 1 = dfs, 2 = bfs, 3 = dijkstra's
+     * @param n The indicated algorithm. 1 = dfs, 2 = bfs, 3 = dijkstra's, 4 = A*,
+     * 5 = bidirectional bfs, 6 = bidirectional dijkstra's
      */
     void runAlgorithm(int n) {
+        if (n <= 0 || n >= this.searches.length) {
+            System.out.println("Invalid option.");
+            return;
+        }
+
         // This blocks any more mouse input.
         this.isRunning = true;
+        this.board.clearVisited();
+        this.pyramid.clearVisited();
+        this.path = GraphSearch.NO_PATH;
+        this.pathCells = new BitSet();
+        this.pathSorted = new int[0];
+        redrawAll();
+
+        // release the algorithm! The grid graph tracks the board, so no build is needed.
+        if (this.searches[n] == null) {
+            this.searches[n] = newSearch(n);
+        }
+        GraphSearch search = this.searches[n];
+
+        int[] found = GraphSearch.NO_PATH;
+        if (targetCell < 0) {
+            search.run(starterCell);
+        } else {
+            found = search.findPath(starterCell, targetCell);
+            if (found.length == 0) {
+                System.out.println("The target cannot be reached.");
+            }
+        }
+        System.out.println("Expanded " + search.expandedCount() + " squares.");
 
-        // Build the graph from the board
-        Graph<Node> graph = buildGraph(); 
+        // Show the path once the animation reaches the end of the search
+        awaitPlayback();
+        setPath(found);
+        repaint();
+        this.isRunning = false;
+    }
 
-        // release the algorithm!
+    /**
+     * Creates the search for the indicated algorithm. The search marks each square
+     * it visits on the GUI.
+     * 
+     * @param n The indicated algorithm. 1 = dfs, 2 = bfs, 3 = dijkstra's, 4 = A*,
+     * 5 = bidirectional bfs, 6 = bidirectional dijkstra's
+     * @return The search, or null if n is not an algorithm.
+     */
+    GraphSearch newSearch(int n) {
+        VisitListener visitor = v -> visitNode(v);
         switch(n) {
             case 1:
-                // DFS
-                dfs(graph, starterNode);
-                break;
+                return new DepthFirstSearch(grid, visitor);
             case 2:
-                bfs(graph, starterNode);
-                break;
+                return new BreadthFirstSearch(grid, visitor);
             case 3:
-                dijkstra(graph, starterNode);
-                break;
+                return new DijkstraSearch(grid, visitor);
+            case 4:
+                return new AStarSearch(grid, Heuristic.manhattan(grid), visitor);
+            case 5:
+                return new BidirectionalBreadthFirstSearch(grid, visitor);
+            case 6:
+                return new BidirectionalDijkstraSearch(grid, visitor);
             default:
-                System.out.println("Invalid option. Exiting...");
-                System.exit(0);
+                return null;
         }
-    
     }
-    
+
     /**
-     * An implementation of the Depth First Search graph traversal algorithm.
+     * Returns the terrain cost that follows the given one in TERRAIN_COSTS.
      * 
-     * @param graph The graph the algorithm will explore
-     * @param s The node from which the algoithm will start exploring
-     */
-    void dfs(Graph<Node> graph, Node s) {
-        Stack<Node> S = new Stack<Node>();
-        S.push(s);
-
-        while (!S.empty()) {
-            Node u = S.pop();
-            if(!u.isVisited()) {
-                visitNode(u);
-                for (Node n : graph.getNeighbors(u)) {
-                    if(!n.isVisited()) {
-                        S.push(n);
-                    }
-                }
+     * @param cost The current cost of a square.
+     * @return The next cost, wrapping around to the cheapest.
+     */
+    static int nextCost(int cost) {
+        for (int k = 0; k < TERRAIN_COSTS.length - 1; k++) {
+            if (TERRAIN_COSTS[k] == cost) {
+                return TERRAIN_COSTS[k + 1];
             }
         }
-
+        return TERRAIN_COSTS[0];
     }
 
     /**
-     * An implementation of the Breadth First Search graph traversal algorithm.
+     * Sets the number of squares revealed each frame, clamped between 1 and MAX_SPEED.
      * 
-     * @param graph The graph the algorithm will explore
-     * @param s The node from which the algorithm will start exploring
+     * @param squaresPerFrame The new playback speed.
      */
-    void bfs(Graph<Node> graph, Node s) {
-        Queue<Node> Q = new LinkedList<Node>();
-        Q.add(s);
+    void setSpeed(int squaresPerFrame) {
+        this.speed = Math.max(1, Math.min(MAX_SPEED, squaresPerFrame));
+        System.out.println("Playback speed: " + this.speed + " squares per frame.");
+    }
 
-        while(!Q.isEmpty()) {
-            Node u = Q.remove();
+    /**
+     * This funciton is used to mark a square as visited on the GUI.  It must
+     * be called by the graph traversal algorithm to see a graphical output of
+     * the behavior of the output. The square is queued for the next frames, and
+     * the search never waits for them to be played. A square spilled into the set
+     * while it is already there is published only once.
+     * 
+     * @param v The index of the square that was visited, i * gridSize + j.
+     */
+    void visitNode(int v) {
+        if ((this.spill.isEmpty() && this.visits.offer(v)) || this.spill.add(v)) {
+            this.published++;
+        }
+    }
 
-            for (Node v : graph.getNeighbors(u)) {
-                if (!v.isVisited()) {
-                    Q.add(v);
-                    visitNode(v);
+    /**
+     * Called by the frame timer. Marks up to speed queued squares as visited and
+     * repaints once if any were marked. The spill set is drained only once the
+     * ring is empty, since everything in the ring was published before it.
+     */
+    void playFrame() {
+        long count = 0;
+        while (count < this.speed) {
+            int max = (int)Math.min(this.speed - count, this.frameBatch.length);
+            int n = this.visits.drain(this.frameBatch, max);
+            if (n == 0) {
+                n = this.spill.drain(this.frameBatch, max);
+            }
+            if (n == 0) {
+                break;
+            }
+            synchronized (this.dirtyLock) {
+                for (int k = 0; k < n; k++) {
+                    int v = this.frameBatch[k];
+                    if (!this.board.isVisited(v)) {
+                        this.board.visit(v);
+                        this.pyramid.visit(v);
+                        addDirty(v);
+                    }
                 }
             }
+            count += n;
+        }
+        if (count > 0) {
+            this.played += count;
+            repaint();
         }
-    } 
+    }
 
     /**
-     * An implementation of Dijkstra's Algorithm. Note that the edge weights are all 
-     * equal to 1.
+     * Shows a path between the start and the target, marking the squares of the
+     * old and the new path for repainting.
      * 
-     * @param graph The graph to traverse.
-     * @param s The node from which the algoithm will start exploring.
+     * @param found The squares of the path, from the start to the target.
      */
-    void dijkstra(Graph<Node> graph, Node s) {
-
-        // A minimum priority queue
-        PriorityQueue<Node> Q = new PriorityQueue<Node>();
-
-        Map<Node, Integer> dist = new HashMap<Node, Integer>();
-        Map<Node, Node> prev = new HashMap<Node, Node>();
-
-        // Initialize distances to infinity and source to zero
-        for(Node n : graph.getVertices()) {
-            dist.put(n, 99999999);
+    void setPath(int[] found) {
+        BitSet cells = new BitSet();
+        for (int k = 1; k < found.length - 1; k++) {
+            cells.set(found[k]);
         }
-        dist.put(s, 0);
-
-        // Push all verticies onto the queue with distance as priority
-        for(Node n : graph.getVertices()) {
-            Q.push(dist.get(n), n);
+        synchronized (this.dirtyLock) {
+            for (int v : this.path) {
+                addDirty(v);
+            }
+            for (int v : found) {
+                addDirty(v);
+            }
+            this.path = found;
+            this.pathCells = cells;
+            this.pathSorted = cells.stream().toArray();
         }
+    }
 
-        while(Q.size() > 1) {
-            Node u = Q.topElement();
-            Q.pop();
-
-            // Iterate over the neighbors
-            for(Node n : graph.getNeighbors(u)) {
-                visitNode(n);
-                int alt = dist.get(u) + 1; // 1 can be replaced by edge weight
-
-                if (alt < dist.get(n)) {
-                    dist.put(n, alt);
-                    prev.put(n, u);
-                    Q.changePriority(n, alt);
-                }
-            }
+    /**
+     * Records that a square must be repainted.
+     * 
+     * @param v The index of the square.
+     */
+    void markDirty(int v) {
+        synchronized (this.dirtyLock) {
+            addDirty(v);
         }
     }
 
+    /**
+     * Adds a square to the dirty list unless it is already there. When the list
+     * is full the overflow flag is raised instead. The caller must hold dirtyLock.
+     */
+    private void addDirty(int v) {
+        if (this.dirtyOverflow || this.dirtyCells.get(v)) {
+            return;
+        }
+        if (this.numDirty == this.dirtyList.length) {
+            this.dirtyOverflow = true;
+            return;
+        }
+        this.dirtyCells.set(v);
+        this.dirtyList[this.numDirty++] = v;
+    }
 
     /**
-     * This funciton is used to mark a square as visited on the GUI.  It must
-     * be called by the graph traversal algorithm to see a graphical output of
-     * the behavior of the output. 
+     * Empties the dirty list into paintList.
      * 
-     * @param n The node that was visited.
+     * @return The number of squares moved into paintList, or -1 if the list
+     * overflowed and every square must be painted.
      */
-    void visitNode(Node n) {
-        n.visit();
-        repaint();
+    int takeDirty() {
+        synchronized (this.dirtyLock) {
+            int[] taken = this.dirtyList;
+            this.dirtyList = this.paintList;
+            this.paintList = taken;
+            int n = this.numDirty;
+            this.numDirty = 0;
+            for (int k = 0; k < n; k++) {
+                this.dirtyCells.clear(taken[k]);
+            }
+            if (this.dirtyOverflow) {
+                this.dirtyOverflow = false;
+                return -1;
+            }
+            return n;
+        }
+    }
 
-        try {
-            Thread.sleep(5);
-        } catch (Exception e) {
-            e.printStackTrace();
+    /**
+     * Waits until the frame timer has marked every square the search published.
+     */
+    void awaitPlayback() {
+        while (this.played < this.published) {
+            try {
+                Thread.sleep(1000 / FRAMES_PER_SECOND);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
         }
     }
 
@@ -309,7 +588,7 @@ class CvApp extends DoubleBuffer {
      * @return The device integer coordinate.
      */
    int iX(float x) {
-        return Math.round(centerX + x / pixelSize);
+        return Math.round(centerX + (x - viewX) * zoom / pixelSize);
     }
     
      /**
@@ -318,7 +597,7 @@ class CvApp extends DoubleBuffer {
      * @return Th device integer coordinate.
      */
    int iY(float y) {
-        return Math.round(centerY - y / pixelSize);
+        return Math.round(centerY - (y - viewY) * zoom / pixelSize);
     }
 
      /**
@@ -327,7 +606,7 @@ class CvApp extends DoubleBuffer {
      * @return The logical float value. 
      */
    float fx(int x) {
-        return (x - centerX) * pixelSize;
+        return (x - centerX) * pixelSize / zoom + viewX;
     }
 
      /**
@@ -336,40 +615,331 @@ class CvApp extends DoubleBuffer {
      * @return The Logical float value.
      */
    float fy(int y) {
-        return (centerY - y) * pixelSize;
+        return (centerY - y) * pixelSize / zoom + viewY;
+    }
+
+    /**
+     * Returns the column of the grid at a logical x coordinate.
+     * @param x
+     * @return The column, which is outside 0 to gridSize - 1 off the grid.
+     */
+    int column(float x) {
+        return (int)Math.floor((x + rWidth / 2) * gridSize / rWidth);
+    }
+
+    /**
+     * Returns the row of the grid at a logical y coordinate.
+     * @param y
+     * @return The row, which is outside 0 to gridSize - 1 off the grid.
+     */
+    int row(float y) {
+        return (int)Math.floor((rHeight / 2 - y) * gridSize / rHeight);
+    }
+
+    /**
+     * Returns the largest zoom, at which MIN_VIEW_SQUARES squares fit across the view.
+     */
+    float maxZoom() {
+        return Math.max(1.0F, (float)gridSize / MIN_VIEW_SQUARES);
+    }
+
+    /**
+     * Moves the viewport and redraws. The center is kept on the grid.
+     * 
+     * @param newZoom The magnification, 1 showing the whole grid.
+     * @param x The logical x coordinate to show at the center of the window.
+     * @param y The logical y coordinate to show at the center of the window.
+     */
+    void setView(float newZoom, float x, float y) {
+        this.zoom = newZoom;
+        this.viewX = Math.max(-rWidth / 2, Math.min(rWidth / 2, x));
+        this.viewY = Math.max(-rHeight / 2, Math.min(rHeight / 2, y));
+        redrawAll();
     }
     
     /**
      * Overrides the Canvas paint funciton.  Paints the grid and the state
-     * of nodes are represented by their color.  
+     * of nodes are represented by their color.  Called after a resize, a
+     * change of view or a redrawAll.
      */
     public void paintBuffer(Graphics g) {
         initGraphics();
-        // int left = iX(-rWidth / 2);
-        //int right = iX(rWidth / 2);
-        //int bottom = iY(-rHeight / 2);
-        //int top = iY(rHeight / 2);
-        //int xMiddle = iX(0);
-        //int yMiddle = iY(0);
-
-        int rectSize =  (int)(rWidth / gridSize / pixelSize);
-
-        for (int i = 0; i < gridSize; i++) {
-            for (int j = 0; j < gridSize; j++) {
-                // Set the color of the node
-                if (this.board[i][j].isVisited()) {
-                    g.setColor((Color.red));
-                } else if (!this.board[i][j].isActive()) {
-                    g.setColor(Color.BLACK);
-                } else if (this.board[i][j] == this.starterNode) {
-                    g.setColor(Color.green);
-                }else {
-                    g.setColor(Color.lightGray);
+        this.rectSize = (int)(rWidth / gridSize / pixelSize * zoom);
+        this.drawingRaster = this.rasterMode || this.rectSize < MIN_SQUARE_PIXELS;
+        // Below one pixel a square, each pixel covers several squares
+        this.blending = this.drawingRaster && this.rectSize < 1;
+
+        // Every square is painted below, so nothing is left dirty
+        takeDirty();
+
+        // Only the visible squares are drawn
+        int i0 = Math.max(0, row(fy(0))), i1 = Math.min(gridSize - 1, row(fy(getHeight())));
+        int j0 = Math.max(0, column(fx(0))), j1 = Math.min(gridSize - 1, column(fx(getWidth())));
+        if (this.blending) {
+            int width = getWidth(), height = getHeight();
+            if (this.raster == null || this.raster.getWidth() != width || this.raster.getHeight() != height) {
+                this.raster = new BufferedImage(Math.max(1, width), Math.max(1, height), BufferedImage.TYPE_INT_RGB);
+                this.rasterPixels = ((DataBufferInt)this.raster.getRaster().getDataBuffer()).getData();
+            }
+            for (int py = 0; py < height; py++) {
+                for (int px = 0; px < width; px++) {
+                    this.rasterPixels[py * width + px] = pixelColor(px, py);
+                }
+            }
+            g.drawImage(this.raster, 0, 0, null);
+            return;
+        }
+        if (this.drawingRaster) {
+            if (i0 > i1 || j0 > j1) {
+                return;
+            }
+            setCellWindow(i0, j0, i1 - i0 + 1, j1 - j0 + 1);
+            for (int i = i0; i <= i1; i++) {
+                for (int j = j0; j <= j1; j++) {
+                    setPixel(this.board.index(i, j));
+                }
+            }
+            drawCells(g);
+            return;
+        }
+        for (int i = i0; i <= i1; i++) {
+            for (int j = j0; j <= j1; j++) {
+                paintSquare(g, this.board.index(i, j));
+            }
+        }
+    }
+
+    /**
+     * Paints only the squares that changed since the last paint over the
+     * previous image.
+     */
+    public void paintChanges(Graphics g) {
+        int n = takeDirty();
+        if (n < 0) {
+            g.clearRect(0, 0, getWidth(), getHeight());
+            paintBuffer(g);
+            return;
+        }
+        if (this.blending) {
+            for (int k = 0; k < n; k++) {
+                repaintPixels(this.paintList[k]);
+            }
+            if (n > 0) {
+                g.drawImage(this.raster, 0, 0, null);
+            }
+            return;
+        }
+        if (this.drawingRaster) {
+            if (this.cells == null) {
+                return;
+            }
+            for (int k = 0; k < n; k++) {
+                setPixel(this.paintList[k]);
+            }
+            if (n > 0) {
+                drawCells(g);
+            }
+            return;
+        }
+        for (int k = 0; k < n; k++) {
+            paintSquare(g, this.paintList[k]);
+        }
+    }
+
+    /**
+     * Returns the color of a square's state.
+     * 
+     * @param v The index of the square, i * gridSize + j.
+     * @return The color the square is drawn in.
+     */
+    Color colorOf(int v) {
+        if (v == this.targetCell) {
+            return Color.blue;
+        } else if (this.board.isVisited(v)) {
+            return Color.red;
+        } else if (!this.board.isActive(v)) {
+            return Color.BLACK;
+        } else if (v == this.starterCell) {
+            return Color.green;
+        } else if (this.board.cost(v) >= Board.MAX_COST) {
+            return Color.darkGray;
+        } else if (this.board.cost(v) > 1) {
+            return Color.gray;
+        } else {
+            return Color.lightGray;
+        }
+    }
+
+    /**
+     * Paints one square in the color of its state, with the path drawn over it.
+     * 
+     * @param g The offscreen graphics.
+     * @param v The index of the square, i * gridSize + j.
+     */
+    void paintSquare(Graphics g, int v) {
+        int i = v / gridSize;
+        int j = v % gridSize;
+
+        int x = iX(-5f + rWidth / gridSize * j);
+        int y = iY(5f - rHeight / gridSize * i);
+        g.setColor(colorOf(v));
+        g.fillRect(x, y, rectSize, rectSize); 
+        g.setColor(Color.black);
+        g.drawRect(x, y, rectSize, rectSize); 
+
+        // Draw the path found between the start and the target
+        if (this.pathCells.get(v)) {
+            g.setColor(Color.yellow);
+            g.fillRect(x + 1, y + 1, rectSize - 1, rectSize - 1); 
+        }
+    }
+
+    /**
+     * Makes the per-square image hold rows i0 to i0 + rows - 1 and columns j0
+     * to j0 + columns - 1, one pixel for each square.
+     */
+    void setCellWindow(int i0, int j0, int rows, int columns) {
+        if (this.cells == null || this.cells.getWidth() < columns || this.cells.getHeight() < rows) {
+            this.cells = new BufferedImage(columns, rows, BufferedImage.TYPE_INT_RGB);
+            this.cellPixels = ((DataBufferInt)this.cells.getRaster().getDataBuffer()).getData();
+        }
+        this.cellRow = i0;
+        this.cellColumn = j0;
+        this.cellRows = rows;
+        this.cellColumns = columns;
+    }
+
+    /**
+     * Writes the color of a square into its pixel of the per-square image, if
+     * the square is in view.
+     * 
+     * @param v The index of the square, i * gridSize + j.
+     */
+    void setPixel(int v) {
+        int i = v / gridSize - this.cellRow;
+        int j = v % gridSize - this.cellColumn;
+        if (i < 0 || i >= this.cellRows || j < 0 || j >= this.cellColumns) {
+            return;
+        }
+        Color c = this.pathCells.get(v) ? Color.yellow : colorOf(v);
+        this.cellPixels[i * this.cells.getWidth() + j] = c.getRGB();
+    }
+
+    /**
+     * Draws the per-square image scaled up to the squares it shows.
+     */
+    void drawCells(Graphics g) {
+        float side = rWidth / gridSize;
+        int left = iX(-rWidth / 2 + side * this.cellColumn);
+        int top = iY(rHeight / 2 - side * this.cellRow);
+        int right = iX(-rWidth / 2 + side * (this.cellColumn + this.cellColumns));
+        int bottom = iY(rHeight / 2 - side * (this.cellRow + this.cellRows));
+        if (g instanceof Graphics2D) {
+            ((Graphics2D)g).setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR);
+        }
+        g.drawImage(this.cells, left, top, right, bottom, 0, 0, this.cellColumns, this.cellRows, null);
+    }
+
+    /**
+     * Returns the raster color of a pixel. A pixel smaller than a square takes
+     * the color of the square under its center. A pixel covering several squares
+     * blends the colors of visited, blocked and open squares by their share of
+     * the region, and shows the target, the start or the path if it covers them.
+     * 
+     * @param px The x device coordinate.
+     * @param py The y device coordinate.
+     * @return The RGB color of the pixel.
+     */
+    int pixelColor(int px, int py) {
+        int i0 = row(fy(py)), i1 = row(fy(py + 1));
+        int j0 = column(fx(px)), j1 = column(fx(px + 1));
+        if (i1 - i0 <= 1 && j1 - j0 <= 1) {
+            int i = row((fy(py) + fy(py + 1)) / 2);
+            int j = column((fx(px) + fx(px + 1)) / 2);
+            if (i < 0 || i >= gridSize || j < 0 || j >= gridSize) {
+                return background();
+            }
+            int v = this.board.index(i, j);
+            return (this.pathCells.get(v) ? Color.yellow : colorOf(v)).getRGB();
+        }
+
+        this.pyramid.count(i0, j0, i1, j1, this.counts);
+        int cells = this.counts[2];
+        if (cells == 0) {
+            return background();
+        }
+        if (covers(this.targetCell, i0, j0, i1, j1)) {
+            return Color.blue.getRGB();
+        }
+        if (covers(this.starterCell, i0, j0, i1, j1)) {
+            return Color.green.getRGB();
+        }
+        int[] sorted = this.pathSorted;
+        if (sorted.length > 0) {
+            for (int i = Math.max(0, i0); i < Math.min(gridSize, i1); i++) {
+                // The first path square at or after the start of this row of the region
+                int k = Arrays.binarySearch(sorted, this.board.index(i, Math.max(0, j0)));
+                k = k < 0 ? -k - 1 : k;
+                if (k < sorted.length && sorted[k] < this.board.index(i, Math.min(gridSize, j1))) {
+                    return Color.yellow.getRGB();
                 }
-                g.fillRect(iX(-5f + rWidth / gridSize *j), iY(5f - rHeight / gridSize * i), rectSize, rectSize); 
-                g.setColor(Color.black);
-                g.drawRect(iX(-5f + rWidth / gridSize *j), iY(5f - rHeight / gridSize * i), rectSize, rectSize); 
             }
         }
+
+        int visited = this.counts[0], blocked = this.counts[1], open = cells - visited - blocked;
+        return blend(Color.red, visited, Color.BLACK, blocked, Color.lightGray, open, cells);
+    }
+
+    /**
+     * Recomputes the raster pixels that a square touches.
+     * 
+     * @param v The index of the square, i * gridSize + j.
+     */
+    void repaintPixels(int v) {
+        int i = v / gridSize;
+        int j = v % gridSize;
+        int width = this.raster.getWidth(), height = this.raster.getHeight();
+
+        // The square's corners in device coordinates, widened to whole pixels
+        float scale = zoom / pixelSize;
+        float left = centerX + (-rWidth / 2 + rWidth / gridSize * j - viewX) * scale;
+        float top = centerY - (rHeight / 2 - rHeight / gridSize * i - viewY) * scale;
+        float side = rWidth / gridSize * scale;
+        int px0 = Math.max(0, (int)Math.floor(left) - 1), px1 = Math.min(width - 1, (int)Math.ceil(left + side) + 1);
+        int py0 = Math.max(0, (int)Math.floor(top) - 1), py1 = Math.min(height - 1, (int)Math.ceil(top + side) + 1);
+        for (int py = py0; py <= py1; py++) {
+            for (int px = px0; px <= px1; px++) {
+                this.rasterPixels[py * width + px] = pixelColor(px, py);
+            }
+        }
+    }
+
+    /**
+     * Returns the RGB color of the window behind the grid.
+     */
+    int background() {
+        Color c = getBackground();
+        return c == null ? Color.white.getRGB() : c.getRGB();
+    }
+
+    /**
+     * Returns true if square v lies in rows i0 to i1 - 1 and columns j0 to j1 - 1.
+     */
+    boolean covers(int v, int i0, int j0, int i1, int j1) {
+        if (v < 0) {
+            return false;
+        }
+        int i = v / gridSize, j = v % gridSize;
+        return i >= i0 && i < i1 && j >= j0 && j < j1;
+    }
+
+    /**
+     * Mixes three colors in proportion to their weights.
+     */
+    static int blend(Color a, int wa, Color b, int wb, Color c, int wc, int total) {
+        int red = (a.getRed() * wa + b.getRed() * wb + c.getRed() * wc) / total;
+        int green = (a.getGreen() * wa + b.getGreen() * wb + c.getGreen() * wc) / total;
+        int blue = (a.getBlue() * wa + b.getBlue() * wb + c.getBlue() * wc) / total;
+        return (red << 16) | (green << 8) | blue;
     }
 }